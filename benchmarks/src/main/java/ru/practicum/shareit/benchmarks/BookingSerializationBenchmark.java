@@ -0,0 +1,57 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация страницы бронирований так, как её пишет Spring MVC: ObjectMapper собирается
+ * тем же Jackson2ObjectMapperBuilder с настройками Spring Boot по умолчанию.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<BookingOutputDto> bookings;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(new TypeReference<List<BookingOutputDto>>() {
+        });
+        bookings = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            bookings.add(BookingMapper.toBookingDto(Fixtures.bookingView(id)));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeBookingPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(bookings);
+    }
+}
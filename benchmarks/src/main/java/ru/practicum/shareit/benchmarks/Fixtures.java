@@ -0,0 +1,56 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Данные для бенчмарков: одна вещь с комментариями, прошлым и будущим бронированием.
+ */
+final class Fixtures {
+    static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 10, 12, 0);
+
+    static final User OWNER = new User(1L, "Owner", "owner@yandex.ru");
+    static final User BOOKER = new User(2L, "Booker", "booker@yandex.ru");
+
+    private Fixtures() {
+    }
+
+    static Item item(long id, int comments) {
+        Item item = new Item(id, OWNER, null, "Дрель " + id, "Аккумуляторная дрель", true);
+        item.setComments(commentDtos(id, comments));
+        item.setLastBooking(booking(id * 2 - 1, item, NOW.minusDays(3), BookingStatus.APPROVED));
+        item.setNextBooking(booking(id * 2, item, NOW.plusDays(2), BookingStatus.WAITING));
+        return item;
+    }
+
+    static Booking booking(long id, Item item, LocalDateTime start, BookingStatus status) {
+        return new Booking(id, BOOKER, item, start, start.plusDays(1), status);
+    }
+
+    static BookingView bookingView(long id) {
+        return new BookingView(id, NOW.plusDays(id), NOW.plusDays(id + 1), BookingStatus.WAITING,
+                BOOKER.getId(), BOOKER.getName(), BOOKER.getEmail(), id, "Дрель " + id, "Аккумуляторная дрель",
+                true, null);
+    }
+
+    static Comment comment(long id, Item item) {
+        return new Comment(id, "Отличная дрель, всё просверлила", item, BOOKER, NOW.minusDays(1));
+    }
+
+    private static List<CommentDto> commentDtos(long itemId, int count) {
+        CommentDto[] comments = new CommentDto[count];
+        for (int i = 0; i < count; i++) {
+            comments[i] = new CommentDto(i + 1, "Комментарий " + (i + 1), BOOKER.getName(), itemId,
+                    NOW.minusDays(1));
+        }
+        return List.of(comments);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.reactive.server.WebFluxTagsContributor;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.server.ServerWebExchange;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Тег state у http.server.requests в обоих режимах gateway: Tomcat (blocking) и Netty (reactive).
+ * Значения ограничены {@link BookingState}: без параметра — NONE, неизвестное значение — INVALID.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public WebMvcTagsContributor bookingStateTagContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Throwable exception) {
+                return Tags.of(stateTag(request.getParameter("state")));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+
+    @Bean
+    public WebFluxTagsContributor reactiveBookingStateTagContributor() {
+        return (ServerWebExchange exchange, Throwable exception) ->
+                Tags.of(stateTag(exchange.getRequest().getQueryParams().getFirst("state")));
+    }
+
+    static Tag stateTag(String state) {
+        if (state == null) {
+            return Tag.of("state", "NONE");
+        }
+        return Tag.of("state", BookingState.from(state).map(Enum::name).orElse("INVALID"));
+    }
+}
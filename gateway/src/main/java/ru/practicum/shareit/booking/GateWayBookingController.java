@@ -3,71 +3,124 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.StateValidationException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
-@Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class GateWayBookingController {
+public abstract class GateWayBookingController<R> {
+	private static final int MAX_BATCH_SIZE = 100;
+
 	private final BookingClient bookingClient;
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+	public R bookItem(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
 			@RequestBody @Valid BookingInputDto bookingInputDto) {
 		log.info("Creating booking {}, userId={}", bookingInputDto, userId);
-		return bookingClient.bookItem(userId, bookingInputDto);
+		return respond(bookingClient.bookItem(userId, bookingInputDto));
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+	public R getBooking(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
 			@PathVariable Long bookingId) {
 		log.info("Get booking by id {}, userId={}", bookingId, userId);
-		return bookingClient.getBooking(userId, bookingId);
+		return respond(bookingClient.getBooking(userId, bookingId));
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> bookingConfirmation(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+	public R bookingConfirmation(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
 												@PathVariable @PositiveOrZero long bookingId,
 												@RequestParam(value = "approved") boolean approved) {
 		log.info("Patch confirm booking {}, userId={}", bookingId, userId);
-		return bookingClient.bookingConfirmation(userId, bookingId, approved);
+		return respond(bookingClient.bookingConfirmation(userId, bookingId, approved));
+	}
+
+	/**
+	 * Ответ содержит итог по каждому бронированию; отказ по одному не отменяет остальные.
+	 */
+	@PatchMapping("/batch")
+	public R bookingConfirmationBatch(
+			@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+			@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull @PositiveOrZero Long> bookingIds,
+			@RequestParam(value = "approved") boolean approved) {
+		log.info("Patch confirm {} bookings, userId={}", bookingIds.size(), userId);
+		return respond(bookingClient.bookingConfirmationBatch(userId, bookingIds, approved));
 	}
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+	public R getBookings(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
 								@RequestParam(name = "state", defaultValue = "all") String stateParam,
 								@PositiveOrZero @RequestParam(name = "from", required = false,
 										defaultValue = "0") Integer from,
 								@Positive @RequestParam(name = "size", required = false,
-										defaultValue = "20") Integer size) {
+										defaultValue = "20") Integer size,
+								@RequestParam(name = "cursor", required = false) String cursor) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new StateValidationException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size,
+				cursor);
+		return respond(bookingClient.getBookings(userId, state, from, size, cursor));
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+	public R getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
 								@RequestParam(name = "state", defaultValue = "all") String stateParam,
 								@PositiveOrZero @RequestParam(name = "from", required = false,
 										defaultValue = "0") Integer from,
 								@Positive @RequestParam(name = "size", required = false,
-										defaultValue = "20") Integer size) {
+										defaultValue = "20") Integer size,
+								@RequestParam(name = "cursor", required = false) String cursor) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new StateValidationException("Unknown state: " + stateParam));
-		log.info("Get booking with state by owner {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getAllBookingByOwner(userId, state, from, size);
+		log.info("Get booking with state by owner {}, userId={}, from={}, size={}, cursor={}", stateParam, userId,
+				from, size, cursor);
+		return respond(bookingClient.getAllBookingByOwner(userId, state, from, size, cursor));
+	}
+
+	protected abstract R respond(Mono<ResponseEntity<Object>> response);
+
+	@Controller
+	@ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking", matchIfMissing = true)
+	static class Blocking extends GateWayBookingController<ResponseEntity<Object>> {
+
+		Blocking(BookingClient bookingClient) {
+			super(bookingClient);
+		}
+
+		@Override
+		protected ResponseEntity<Object> respond(Mono<ResponseEntity<Object>> response) {
+			return response.block();
+		}
+	}
+
+	@Controller
+	@ConditionalOnProperty(name = "shareit-server.client", havingValue = "reactive")
+	static class Reactive extends GateWayBookingController<Mono<ResponseEntity<Object>>> {
+
+		Reactive(BookingClient bookingClient) {
+			super(bookingClient);
+		}
+
+		@Override
+		protected Mono<ResponseEntity<Object>> respond(Mono<ResponseEntity<Object>> response) {
+			return response;
+		}
 	}
 }
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш успешных ответов server на GET по id. Кэш разбит на области по префиксу API;
+ * запись через клиент gateway сбрасывает области, ответы которых она может изменить.
+ * Изменения в обход этого gateway видны не позже чем через ttl.
+ */
+@Component
+public class ResponseCache {
+    private static final List<String> ALL_REGIONS = List.of("/users", "/items", "/requests");
+    private static final Map<String, List<String>> INVALIDATED_BY_WRITE = Map.of(
+            "/users", ALL_REGIONS,
+            "/items", List.of("/items", "/requests"),
+            "/bookings", List.of("/items"),
+            "/requests", List.of()
+    );
+
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long maxSize;
+    private final Duration ttl;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCache(@Value("${shareit-server.cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-server.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit-server.cache.ttl:30s}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<ResponseEntity<Object>> get(String region, String key,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Region cache = region(region);
+        ResponseEntity<Object> cached = cache.responses.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long generation = cache.generation.get();
+        return loader.get().doOnNext(response -> {
+            if (response.getStatusCode() == HttpStatus.OK && cache.generation.get() == generation) {
+                cache.responses.put(key, response);
+                if (cache.generation.get() != generation) {
+                    cache.responses.invalidate(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Ответ, загруженный до записи и пришедший после неё, в кэш не попадёт: сброс меняет поколение области.
+     */
+    public void invalidateAfterWrite(String writtenRegion) {
+        if (!enabled) {
+            return;
+        }
+        for (String name : INVALIDATED_BY_WRITE.getOrDefault(writtenRegion, ALL_REGIONS)) {
+            Region cache = region(name);
+            cache.generation.incrementAndGet();
+            cache.responses.invalidateAll();
+        }
+    }
+
+    private Region region(String name) {
+        return regions.computeIfAbsent(name, this::createRegion);
+    }
+
+    private Region createRegion(String name) {
+        Cache<String, ResponseEntity<Object>> responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway.response", "region", name);
+        return new Region(responses);
+    }
+
+    private static class Region {
+        private final Cache<String, ResponseEntity<Object>> responses;
+        private final AtomicLong generation = new AtomicLong();
+
+        Region(Cache<String, ResponseEntity<Object>> responses) {
+            this.responses = responses;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Блокирующий транспорт: запрос выполняется в потоке, подписавшемся на результат.
+ * Тело ответа читается как есть в byte[], без разбора JSON.
+ */
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+
+    public RestTemplateTransport(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> {
+            HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+            try {
+                ResponseEntity<byte[]> response = parameters != null
+                        ? rest.exchange(path, method, requestEntity, byte[].class, parameters)
+                        : rest.exchange(path, method, requestEntity, byte[].class);
+                return new ResponseEntity<>(response.getBody(), response.getHeaders(), response.getStatusCode());
+            } catch (HttpStatusCodeException e) {
+                return new ResponseEntity<>(e.getResponseBodyAsByteArray(), e.getResponseHeaders(), e.getStatusCode());
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Клиенты gateway → server. Режим задаётся свойством shareit-server.client:
+ * blocking (по умолчанию) — RestTemplate на общем пуле Apache HttpClient,
+ * reactive — WebClient на Reactor Netty, обычно вместе с профилем reactive.
+ * Контроллеры выбираются по тому же свойству: в блокирующем режиме они возвращают ResponseEntity
+ * и запрос обрабатывается в потоке Tomcat без асинхронной диспетчеризации.
+ */
+@Configuration
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerClientConfig {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking", matchIfMissing = true)
+    static class Blocking {
+
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager serverConnectionManager(ServerClientProperties properties) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(properties.getMaxTotal());
+            connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+            connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+            return connectionManager;
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                   ServerClientProperties properties) {
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                    .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                    .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                    .build();
+            long keepAlive = properties.getKeepAlive().toMillis();
+            ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+                long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                        .getKeepAliveDuration(response, context);
+                return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+            };
+            return HttpClients.custom()
+                    .setConnectionManager(serverConnectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(keepAliveStrategy)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(properties.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        @Bean
+        public HttpComponentsClientHttpRequestFactory serverRequestFactory(CloseableHttpClient serverHttpClient) {
+            return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+        }
+
+        /**
+         * Метрики пула: httpcomponents.httpclient.pool.total.connections{state=leased|available},
+         * httpcomponents.httpclient.pool.total.pending и лимиты пула.
+         */
+        @Bean
+        public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, "shareit-server");
+        }
+
+        @Bean
+        public ServerTransport serverTransport(@Value("${shareit-server.url}") String serverUrl,
+                                               RestTemplateBuilder builder,
+                                               HttpComponentsClientHttpRequestFactory serverRequestFactory) {
+            return new RestTemplateTransport(builder
+                    .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                    .requestFactory(() -> serverRequestFactory)
+                    .build());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "reactive")
+    static class Reactive {
+
+        /**
+         * Reactor Netty держит отдельный пул на каждый адрес, поэтому его размер — max-per-route;
+         * запросы сверх него ждут в очереди до max-pending.
+         * Метрики пула: reactor.netty.connection.provider.{active,idle,pending}.connections.
+         */
+        @Bean(destroyMethod = "dispose")
+        public ConnectionProvider serverConnectionProvider(ServerClientProperties properties) {
+            return ConnectionProvider.builder("shareit-server")
+                    .maxConnections(properties.getMaxPerRoute())
+                    .pendingAcquireMaxCount(properties.getMaxPending())
+                    .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                    .maxIdleTime(properties.getKeepAlive())
+                    .evictInBackground(properties.getIdleEviction())
+                    .metrics(true)
+                    .build();
+        }
+
+        @Bean
+        public ServerTransport serverTransport(@Value("${shareit-server.url}") String serverUrl,
+                                               WebClient.Builder builder,
+                                               ConnectionProvider serverConnectionProvider,
+                                               ServerClientProperties properties) {
+            HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                    .responseTimeout(properties.getReadTimeout());
+            return new WebClientTransport(builder
+                    .baseUrl(serverUrl)
+                    .clientConnector(new ReactorClientHttpConnector(httpClient))
+                    .build());
+        }
+
+        /**
+         * При наличии Tomcat в classpath Spring Boot выбрал бы его и для WebFlux, поэтому сервер задаётся явно.
+         */
+        @Bean
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+        public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+            return new NettyReactiveWebServerFactory();
+        }
+    }
+}
@@ -2,84 +2,131 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.ArrayList;
+import java.util.List;
 
-@Controller
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class GateWayItemController {
+public abstract class GateWayItemController<R> {
+
+    private static final int MAX_BATCH_SIZE = 100;
 
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestBody @Valid ItemDto item,
-                                      @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId) {
+    public R add(@RequestBody @Valid ItemDto item,
+                 @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId) {
         log.info("Add item {}, user {}", item, userId);
-        return itemClient.add(userId, item);
+        return respond(itemClient.add(userId, item));
+    }
+
+    /**
+     * Ошибки валидации приходят по каждой позиции, например {@code addBatch.items[2].name}.
+     */
+    @PostMapping("batch")
+    public R addBatch(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                      List<@Valid ItemDto> items,
+                      @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId) {
+        log.info("Add {} items, user {}", items.size(), userId);
+        return respond(itemClient.addBatch(userId, items));
     }
 
     @PatchMapping("{itemId}")
-    public ResponseEntity<Object> update(@RequestBody ItemDto item,
-                                         @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
-                                         @PathVariable @PositiveOrZero long itemId) {
+    public R update(@RequestBody ItemDto item,
+                    @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+                    @PathVariable @PositiveOrZero long itemId) {
         log.info("Update item {}, user {}", itemId, userId);
-        return itemClient.update(userId, itemId, item);
+        return respond(itemClient.update(userId, itemId, item));
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
-                                          @PathVariable @PositiveOrZero long itemId) {
+    public R getById(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+                     @PathVariable @PositiveOrZero long itemId) {
         log.info("Get item by id {}, user {}", itemId, userId);
-        return itemClient.getById(itemId, userId);
+        return respond(itemClient.getById(itemId, userId));
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getAllbyUserId(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
-                                         @PositiveOrZero @RequestParam(name = "from", required = false,
-                                                 defaultValue = "0") Integer from,
-                                         @Positive @RequestParam(name = "size", required = false,
-                                                 defaultValue = "20") Integer size) {
-        log.info("Get all items by user {}, from {}, size {}", userId, from, size);
-        return itemClient.getAllByUserId(userId, from, size);
+    public R getAllbyUserId(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+                            @PositiveOrZero @RequestParam(name = "from", required = false,
+                                    defaultValue = "0") Integer from,
+                            @Positive @RequestParam(name = "size", required = false,
+                                    defaultValue = "20") Integer size,
+                            @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Get all items by user {}, from {}, size {}, cursor {}", userId, from, size, cursor);
+        return respond(itemClient.getAllByUserId(userId, from, size, cursor));
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> delete(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
+    public R delete(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
         log.info("Delete item {}, user {}", itemId, userId);
-        return itemClient.delete(userId, itemId);
+        return respond(itemClient.delete(userId, itemId));
     }
 
     @PostMapping("{itemId}/comment")
-    public ResponseEntity<Object> addComment(@Valid @RequestBody CommentDto comment,
-                                                @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
-                                                @PathVariable @PositiveOrZero long itemId) {
+    public R addComment(@Valid @RequestBody CommentDto comment,
+                        @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+                        @PathVariable @PositiveOrZero long itemId) {
         log.info("Add comment {}, user {}, item {}", comment, userId, itemId);
-        return itemClient.addComment(userId, itemId, comment);
+        return respond(itemClient.addComment(userId, itemId, comment));
     }
 
     @GetMapping("search")
-    public ResponseEntity<Object> searchByText(@RequestParam String text,
-                                         @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
-                                         @PositiveOrZero @RequestParam(name = "from", required = false,
-                                                 defaultValue = "0") int from,
-                                         @Positive @RequestParam(name = "size", required = false,
-                                                 defaultValue = "20") int size) {
+    public R searchByText(@RequestParam String text,
+                          @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+                          @PositiveOrZero @RequestParam(name = "from", required = false,
+                                  defaultValue = "0") int from,
+                          @Positive @RequestParam(name = "size", required = false,
+                                  defaultValue = "20") int size) {
         log.info("Search items by text {}, user {}, from {}, size {}", text, userId, from, size);
-        if (text.isBlank()) return new ResponseEntity<>(new ArrayList<ItemDto>(), HttpStatus.OK);
-        return itemClient.searchByText(text, userId, from, size);
+        if (text.isBlank()) return respond(Mono.just(new ResponseEntity<>(new ArrayList<ItemDto>(), HttpStatus.OK)));
+        return respond(itemClient.searchByText(text, userId, from, size));
     }
 
+    protected abstract R respond(Mono<ResponseEntity<Object>> response);
+
+    @Controller
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking", matchIfMissing = true)
+    static class Blocking extends GateWayItemController<ResponseEntity<Object>> {
+
+        Blocking(ItemClient itemClient) {
+            super(itemClient);
+        }
+
+        @Override
+        protected ResponseEntity<Object> respond(Mono<ResponseEntity<Object>> response) {
+            return response.block();
+        }
+    }
+
+    @Controller
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "reactive")
+    static class Reactive extends GateWayItemController<Mono<ResponseEntity<Object>>> {
+
+        Reactive(ItemClient itemClient) {
+            super(itemClient);
+        }
+
+        @Override
+        protected Mono<ResponseEntity<Object>> respond(Mono<ResponseEntity<Object>> response) {
+            return response;
+        }
+    }
 }
@@ -1,16 +1,17 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,40 +19,39 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerTransport transport, ResponseCache responseCache) {
+        super(API_PREFIX, transport, responseCache);
     }
 
-    public ResponseEntity<Object> add(long userId, ItemDto item) {
+    public Mono<ResponseEntity<Object>> add(long userId, ItemDto item) {
         return post("", userId, item);
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, ItemDto item) {
-        return patch("/" + itemId, userId, item);
+    public Mono<ResponseEntity<Object>> addBatch(long userId, List<ItemDto> items) {
+        return post("/batch", userId, items);
     }
 
-    public ResponseEntity<Object> getById(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> update(long userId, long itemId, ItemDto item) {
+        return patch("/{itemId}", userId, Map.of("itemId", itemId), item);
     }
 
-    public ResponseEntity<Object> getAllByUserId(long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getById(long itemId, long userId) {
+        return cachedGet("/{itemId}", userId, Map.of("itemId", itemId));
+    }
+
+    public Mono<ResponseEntity<Object>> getAllByUserId(long userId, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto comment) {
-        return post("/" + itemId + "/comment", userId, comment);
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto comment) {
+        return post("/{itemId}/comment", userId, Map.of("itemId", itemId), comment);
     }
 
-    public ResponseEntity<Object> searchByText(String text, long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> searchByText(String text, long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -60,7 +60,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> delete(long userId, long itemId) {
-        return delete("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> delete(long userId, long itemId) {
+        return delete("/{itemId}", userId, Map.of("itemId", itemId));
     }
 }
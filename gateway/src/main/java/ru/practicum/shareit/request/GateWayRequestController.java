@@ -2,52 +2,84 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
-@Controller
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class GateWayRequestController {
+public abstract class GateWayRequestController<R> {
     private final RequestClient requestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemRequestsByUserId(@RequestHeader("X-Sharer-User-Id")
-                                                                 @PositiveOrZero long userId) {
+    public R getAllItemRequestsByUserId(@RequestHeader("X-Sharer-User-Id")
+                                            @PositiveOrZero long userId) {
         log.info("Get all requests by user id {}", userId);
-        return requestClient.getAllItemRequestsByUserId(userId);
+        return respond(requestClient.getAllItemRequestsByUserId(userId));
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
-                              @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public R add(@RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
+                 @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Add request {}, user {}", itemRequestDto, userId);
-        return requestClient.add(userId, itemRequestDto);
+        return respond(requestClient.add(userId, itemRequestDto));
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequestsCreatedAnotherUsers(
+    public R getAllItemRequestsCreatedAnotherUsers(
             @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId,
             @RequestParam(value = "from", required = false, defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(value = "size", required = false, defaultValue = "20") @Positive int size) {
-        log.info("Get all requests created by another user {}, from {}, size {}", userId, from, size);
-        return requestClient.getAllItemRequestsCreatedAnotherUsers(userId, from, size);
+            @RequestParam(value = "size", required = false, defaultValue = "20") @Positive int size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("Get all requests created by another user {}, from {}, size {}, cursor {}", userId, from, size,
+                cursor);
+        return respond(requestClient.getAllItemRequestsCreatedAnotherUsers(userId, from, size, cursor));
     }
 
     @GetMapping("{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@PathVariable @PositiveOrZero long requestId,
-                                                     @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId) {
+    public R getItemRequestById(@PathVariable @PositiveOrZero long requestId,
+                                @RequestHeader("X-Sharer-User-Id") @PositiveOrZero long userId) {
         log.info("Get request by id {}, user {}", requestId, userId);
-        return requestClient.getItemRequestById(requestId, userId);
+        return respond(requestClient.getItemRequestById(requestId, userId));
     }
 
+    protected abstract R respond(Mono<ResponseEntity<Object>> response);
+
+    @Controller
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking", matchIfMissing = true)
+    static class Blocking extends GateWayRequestController<ResponseEntity<Object>> {
+
+        Blocking(RequestClient requestClient) {
+            super(requestClient);
+        }
+
+        @Override
+        protected ResponseEntity<Object> respond(Mono<ResponseEntity<Object>> response) {
+            return response.block();
+        }
+    }
+
+    @Controller
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "reactive")
+    static class Reactive extends GateWayRequestController<Mono<ResponseEntity<Object>>> {
+
+        Reactive(RequestClient requestClient) {
+            super(requestClient);
+        }
+
+        @Override
+        protected Mono<ResponseEntity<Object>> respond(Mono<ResponseEntity<Object>> response) {
+            return response;
+        }
+    }
 }
@@ -1,15 +1,15 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,33 +17,29 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(ServerTransport transport, ResponseCache responseCache) {
+        super(API_PREFIX, transport, responseCache);
     }
 
-    public ResponseEntity<Object> getAllItemRequestsByUserId(long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemRequestsByUserId(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> add(long userId, ItemRequestDto itemRequest) {
+    public Mono<ResponseEntity<Object>> add(long userId, ItemRequestDto itemRequest) {
         return post("", userId, itemRequest);
     }
 
-    public ResponseEntity<Object> getAllItemRequestsCreatedAnotherUsers(long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllItemRequestsCreatedAnotherUsers(long userId, int from, int size,
+                                                                        String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("/all?from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestById(long requestId, long userId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getItemRequestById(long requestId, long userId) {
+        return cachedGet("/{requestId}", userId, Map.of("requestId", requestId));
     }
 
 }
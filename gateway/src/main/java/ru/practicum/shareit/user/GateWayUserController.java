@@ -2,52 +2,82 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.PositiveOrZero;
 
-@Controller
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class GateWayUserController {
+public abstract class GateWayUserController<R> {
 
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public R getAll() {
         log.info("Get all users");
-        return userClient.getAll();
+        return respond(userClient.getAll());
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable @PositiveOrZero long userId) {
+    public R getById(@PathVariable @PositiveOrZero long userId) {
         log.info("Get user by id {}", userId);
-        return userClient.getById(userId);
+        return respond(userClient.getById(userId));
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@Valid @RequestBody UserDto userDto) {
+    public R add(@Valid @RequestBody UserDto userDto) {
         log.info("Add user {}", userDto);
-        return userClient.add(userDto);
+        return respond(userClient.add(userDto));
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable @PositiveOrZero long userId, @RequestBody UserDto userDto) {
+    public R update(@PathVariable @PositiveOrZero long userId, @RequestBody UserDto userDto) {
         log.info("Update user by id {}, user {}", userId, userDto);
-        return userClient.update(userId, userDto);
+        return respond(userClient.update(userId, userDto));
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable @PositiveOrZero long userId) {
+    public R delete(@PathVariable @PositiveOrZero long userId) {
         log.info("Delete user by id {}", userId);
-        return userClient.delete(userId);
+        return respond(userClient.delete(userId));
     }
 
+    protected abstract R respond(Mono<ResponseEntity<Object>> response);
+
+    @Controller
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking", matchIfMissing = true)
+    static class Blocking extends GateWayUserController<ResponseEntity<Object>> {
+
+        Blocking(UserClient userClient) {
+            super(userClient);
+        }
+
+        @Override
+        protected ResponseEntity<Object> respond(Mono<ResponseEntity<Object>> response) {
+            return response.block();
+        }
+    }
+
+    @Controller
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "reactive")
+    static class Reactive extends GateWayUserController<Mono<ResponseEntity<Object>>> {
+
+        Reactive(UserClient userClient) {
+            super(userClient);
+        }
+
+        @Override
+        protected Mono<ResponseEntity<Object>> respond(Mono<ResponseEntity<Object>> response) {
+            return response;
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * /actuator/prometheus в обоих режимах gateway: гистограммы входящих запросов с тегом state
+ * и запросов к server с шаблоном адреса в теге uri.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GatewayMetricsTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private HttpServer server;
+
+    @BeforeAll
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"default", "reactive"})
+    void prometheusShouldExposeRequestHistograms(String profile) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .profiles(profile)
+                .run("--server.port=0", "--shareit-server.url=http://localhost:" + server.getAddress().getPort())) {
+            String url = "http://localhost:" + gateway.getEnvironment().getProperty("local.server.port");
+
+            HttpResponse<String> bookings = httpClient.send(HttpRequest.newBuilder(
+                    URI.create(url + "/bookings?state=past")).header("X-Sharer-User-Id", "1").build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, bookings.statusCode());
+
+            HttpResponse<String> user = httpClient.send(HttpRequest.newBuilder(URI.create(url + "/users/7")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, user.statusCode());
+
+            HttpResponse<String> metrics = httpClient.send(HttpRequest.newBuilder(
+                    URI.create(url + "/actuator/prometheus")).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, metrics.statusCode());
+            assertTrue(metrics.body().contains("http_server_requests_seconds_bucket{application=\"shareit-gateway\""),
+                    metrics.body());
+            assertTrue(metrics.body().contains("state=\"PAST\""), metrics.body());
+            assertTrue(metrics.body().contains("http_client_requests_seconds_bucket{"), metrics.body());
+            assertTrue(metrics.body().contains("uri=\"/users/{userId}\""), metrics.body());
+            assertFalse(metrics.body().contains("uri=\"/users/7\""), metrics.body());
+        }
+    }
+}
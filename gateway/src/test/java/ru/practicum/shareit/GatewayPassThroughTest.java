@@ -0,0 +1,83 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Gateway отдаёт тело ответа server байт в байт, не пересобирая JSON.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GatewayPassThroughTest {
+
+    private static final String BOOKINGS = "[ {\"id\" : 1, \"price\" : 1.50, \"name\" : \"Дрель\"} ]";
+    private static final String NOT_FOUND = "{ \"error\" : \"Пользователь не найден\" }";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private HttpServer server;
+
+    @BeforeAll
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings", exchange -> {
+            exchange.getResponseHeaders().add("X-Next-Cursor", "abc");
+            respond(exchange, 200, BOOKINGS);
+        });
+        server.createContext("/users", exchange -> respond(exchange, 404, NOT_FOUND));
+        server.start();
+    }
+
+    @AfterAll
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"default", "reactive"})
+    void gatewayShouldCopyServerResponseAsIs(String profile) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .profiles(profile)
+                .run("--server.port=0", "--shareit-server.url=http://localhost:" + server.getAddress().getPort())) {
+            String url = "http://localhost:" + gateway.getEnvironment().getProperty("local.server.port");
+
+            HttpResponse<String> bookings = httpClient.send(HttpRequest.newBuilder(URI.create(url + "/bookings"))
+                    .header("X-Sharer-User-Id", "1").build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, bookings.statusCode());
+            assertEquals(BOOKINGS, bookings.body());
+            assertEquals("application/json", bookings.headers().firstValue("Content-Type").orElseThrow());
+            assertEquals("abc", bookings.headers().firstValue("X-Next-Cursor").orElseThrow());
+
+            HttpResponse<String> user = httpClient.send(HttpRequest.newBuilder(URI.create(url + "/users/7")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, user.statusCode());
+            assertEquals(NOT_FOUND, user.body());
+            assertEquals("application/json", user.headers().firstValue("Content-Type").orElseThrow());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCache cache = new ResponseCache(true, 100, Duration.ofMinutes(1), meterRegistry);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void getShouldLoadOnceAndServeFromCache() {
+        assertEquals("1", body(cache.get("/items", "/1#1", this::load)));
+        assertEquals("1", body(cache.get("/items", "/1#1", this::load)));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "gateway.response")
+                .tag("region", "/items").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getShouldKeepUsersApart() {
+        cache.get("/items", "/1#1", this::load).block();
+        cache.get("/items", "/1#2", this::load).block();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void getShouldNotCacheErrors() {
+        cache.get("/users", "/1#null", () -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build())).block();
+        cache.get("/users", "/1#null", this::load).block();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void bookingWriteShouldInvalidateItemsOnly() {
+        cache.get("/items", "/1#1", this::load).block();
+        cache.get("/users", "/1#null", this::load).block();
+
+        cache.invalidateAfterWrite("/bookings");
+        cache.get("/items", "/1#1", this::load).block();
+        cache.get("/users", "/1#null", this::load).block();
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void userWriteShouldInvalidateEverything() {
+        cache.get("/items", "/1#1", this::load).block();
+        cache.get("/requests", "/1#1", this::load).block();
+
+        cache.invalidateAfterWrite("/users");
+        cache.get("/items", "/1#1", this::load).block();
+        cache.get("/requests", "/1#1", this::load).block();
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void responseLoadedBeforeWriteShouldNotBeCached() {
+        Sinks.One<ResponseEntity<Object>> slowResponse = Sinks.one();
+        Mono<ResponseEntity<Object>> inFlight = cache.get("/items", "/1#1", slowResponse::asMono);
+        inFlight.subscribe();
+
+        cache.invalidateAfterWrite("/items");
+        slowResponse.tryEmitValue(ResponseEntity.ok("old"));
+        assertEquals("1", body(cache.get("/items", "/1#1", this::load)));
+    }
+
+    private Mono<ResponseEntity<Object>> load() {
+        return Mono.just(ResponseEntity.ok(String.valueOf(calls.incrementAndGet())));
+    }
+
+    private static Object body(Mono<ResponseEntity<Object>> response) {
+        return response.block().getBody();
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(GateWayItemController.Blocking.class)
+class GateWayItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @Test
+    void addBatchShouldReportInvalidItemsByIndex() throws Exception {
+        mockMvc.perform(post("/items/batch").header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Дрель\", \"description\": \"Дрель\", \"available\": true}," +
+                                "{\"name\": \"\", \"description\": \"Пила\", \"available\": true}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", allOf(containsString("[1].name"), not(containsString("[0]")))));
+
+        verify(itemClient, never()).addBatch(anyLong(), any());
+    }
+
+    @Test
+    void getByIdShouldAnswerWithoutAsyncDispatch() throws Exception {
+        when(itemClient.getById(1, 2)).thenReturn(Mono.just(ResponseEntity.ok("{\"id\": 1}")));
+
+        mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 2))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void addBatchShouldRejectEmptyList() throws Exception {
+        mockMvc.perform(post("/items/batch").header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.load;
+
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает режимы gateway перед медленным server: заглушка отвечает на GET /users с задержкой,
+ * gateway из собранного jar запускается сначала в блокирующем режиме с ограниченным пулом потоков
+ * Tomcat, затем в реактивном. В каждом режиме несколько раз отправляется пачка одновременных
+ * запросов и печатается время каждой пачки.
+ *
+ * <p>Запуск из корня репозитория после {@code mvn package -DskipTests}:
+ * <pre>
+ * java -cp load-tests/target/load-tests.jar ru.practicum.shareit.load.GatewayModeBenchmark \
+ *     --requests=400 --server-delay=200ms --tomcat-threads=16 --rounds=5
+ * </pre>
+ */
+public class GatewayModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTest.parse(args);
+        int requests = Integer.parseInt(options.getOrDefault("requests", "400"));
+        Duration serverDelay = DurationStyle.detectAndParse(options.getOrDefault("server-delay", "200ms"));
+        int tomcatThreads = Integer.parseInt(options.getOrDefault("tomcat-threads", "16"));
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "5"));
+
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(requests);
+        HttpServer server = slowServer(serverDelay, requests, serverExecutor);
+        try {
+            String serverUrl = "http://localhost:" + server.getAddress().getPort();
+            System.out.printf("%d одновременных запросов, задержка server %d мс, потоков Tomcat %d%n",
+                    requests, serverDelay.toMillis(), tomcatThreads);
+            measure("blocking", options, serverUrl, List.of("--server.tomcat.threads.max=" + tomcatThreads),
+                    requests, rounds);
+            measure("reactive", options, serverUrl, List.of("--spring.profiles.active=reactive"),
+                    requests, rounds);
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private static void measure(String mode, Map<String, String> options, String serverUrl, List<String> args,
+                                int requests, int rounds) throws Exception {
+        try (LocalStack stack = LocalStack.startGateway(options, serverUrl, args)) {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            URI uri = URI.create(stack.getGatewayUrl() + "/users");
+            send(client, uri, requests);
+            List<Long> times = new ArrayList<>();
+            for (int i = 0; i < rounds; i++) {
+                long started = System.nanoTime();
+                send(client, uri, requests);
+                times.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+            System.out.printf("%-9s %s мс%n", mode, times);
+        }
+    }
+
+    private static void send(HttpClient client, URI uri, int count) {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            int status = response.join().statusCode();
+            if (status != 200) {
+                throw new IllegalStateException("Gateway ответил " + status);
+            }
+        }
+    }
+
+    private static HttpServer slowServer(Duration delay, int backlog, ExecutorService executor) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), backlog);
+        server.createContext("/users", exchange -> {
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и ошибки по операциям. До {@link #start()} замеры отбрасываются — это прогрев.
+ */
+class LatencyReport {
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private volatile boolean recording;
+    private long startedAt;
+    private long stoppedAt;
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    void record(Operation operation, long nanos, boolean successful) {
+        if (!recording) {
+            return;
+        }
+        latencies.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY));
+        if (!successful) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void print(PrintStream out) {
+        double seconds = (stoppedAt - startedAt) / 1e9;
+        out.printf("%n%-18s %9s %7s %9s %8s %8s %8s %8s %8s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(MAX_LATENCY, 3);
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errors.get(operation).sum();
+            printRow(out, operation.toString(), histogram, errors.get(operation).sum(), seconds);
+        }
+        printRow(out, "total", total, totalErrors, seconds);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-18s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n", name, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
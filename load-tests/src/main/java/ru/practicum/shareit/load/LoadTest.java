@@ -0,0 +1,110 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон ShareIt через gateway. По умолчанию поднимает server на H2 в памяти и gateway
+ * отдельными процессами из собранных jar, заполняет их данными и гоняет смесь запросов из
+ * workload.properties заданным числом потоков. В конце печатает пропускную способность
+ * и перцентили задержки по каждой операции.
+ *
+ * <p>Запуск из корня репозитория после {@code mvn package -DskipTests}:
+ * <pre>
+ * java -jar load-tests/target/load-tests.jar --concurrency=32 --duration=60s
+ * java -jar load-tests/target/load-tests.jar --gateway-url=http://localhost:8080
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        Map<Operation, Integer> mix = loadMix(options.get("workload"));
+
+        try (LocalStack stack = options.containsKey("gateway-url")
+                ? LocalStack.attach(options.get("gateway-url"))
+                : LocalStack.start(options)) {
+            ShareItApi api = new ShareItApi(stack.getGatewayUrl());
+            LatencyReport report = new LatencyReport();
+            Scenario scenario = Scenario.seed(api, report,
+                    Integer.parseInt(options.getOrDefault("users", "50")),
+                    Integer.parseInt(options.getOrDefault("items", "200")));
+            System.out.printf("Нагрузка: %d потоков, прогрев %d с, замер %d с, смесь %s%n",
+                    concurrency, warmup.toSeconds(), duration.toSeconds(), mix);
+            run(scenario, report, mix, concurrency, warmup, duration);
+            report.print(System.out);
+        }
+    }
+
+    private static void run(Scenario scenario, LatencyReport report, Map<Operation, Integer> mix,
+                            int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        Operation[] weighted = mix.entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Operation[]::new);
+        long deadline = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    scenario.execute(weighted[random.nextInt(weighted.length)], random);
+                }
+            }, "load-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        TimeUnit.NANOSECONDS.sleep(warmup.toNanos());
+        report.start();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        report.stop();
+    }
+
+    private static Map<Operation, Integer> loadMix(String file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = file != null ? Files.newInputStream(Path.of(file))
+                : LoadTest.class.getResourceAsStream("/workload.properties")) {
+            properties.load(in);
+        }
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String name : properties.stringPropertyNames()) {
+            int weight = Integer.parseInt(properties.getProperty(name).trim());
+            if (weight > 0) {
+                mix.put(Operation.byName(name), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("В смеси запросов нет ни одной операции с положительным весом");
+        }
+        return mix;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается --ключ=значение, получено: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Server и gateway, запущенные отдельными JVM. База server — H2 в памяти, схема создаётся
+ * миграциями Flyway так же, как на PostgreSQL. Логи пишутся в load-tests/target.
+ */
+class LocalStack implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final String gatewayUrl;
+    private final List<Process> processes;
+
+    private LocalStack(String gatewayUrl, List<Process> processes) {
+        this.gatewayUrl = gatewayUrl;
+        this.processes = processes;
+    }
+
+    static LocalStack attach(String gatewayUrl) {
+        return new LocalStack(gatewayUrl, List.of());
+    }
+
+    /**
+     * Параметры: --server-jar, --gateway-jar (по умолчанию ищутся в server/target и gateway/target),
+     * --server-args и --gateway-args — дополнительные аргументы через пробел,
+     * например {@code --gateway-args=--spring.profiles.active=reactive}.
+     */
+    static LocalStack start(Map<String, String> options) throws IOException, InterruptedException {
+        Path serverJar = options.containsKey("server-jar") ? Path.of(options.get("server-jar"))
+                : findJar(Path.of("server", "target"), "shareit-server-", "-exec.jar");
+        Path gatewayJar = gatewayJar(options);
+        Path logs = Files.createDirectories(Path.of("load-tests", "target"));
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+        List<Process> processes = new ArrayList<>();
+        LocalStack stack = new LocalStack("http://localhost:" + gatewayPort, processes);
+        try {
+            List<String> serverArgs = new ArrayList<>(List.of(
+                    "--server.port=" + serverPort,
+                    "--spring.datasource.url=jdbc:h2:mem:shareit;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+            serverArgs.addAll(split(options.get("server-args")));
+            processes.add(launch(serverJar, logs.resolve("server.log"), serverArgs));
+            waitUntilUp("http://localhost:" + serverPort + "/users", processes.get(0), logs.resolve("server.log"));
+
+            stack.launchGateway(gatewayJar, logs, gatewayPort, "http://localhost:" + serverPort,
+                    split(options.get("gateway-args")));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            stack.close();
+            throw e;
+        }
+        System.out.printf("Server на порту %d, gateway на порту %d%n", serverPort, gatewayPort);
+        return stack;
+    }
+
+    /**
+     * Только gateway перед уже работающим server по адресу serverUrl; args добавляются к --gateway-args.
+     */
+    static LocalStack startGateway(Map<String, String> options, String serverUrl, List<String> args)
+            throws IOException, InterruptedException {
+        Path gatewayJar = gatewayJar(options);
+        Path logs = Files.createDirectories(Path.of("load-tests", "target"));
+        int gatewayPort = freePort();
+        LocalStack stack = new LocalStack("http://localhost:" + gatewayPort, new ArrayList<>());
+        List<String> gatewayArgs = new ArrayList<>(split(options.get("gateway-args")));
+        gatewayArgs.addAll(args);
+        try {
+            stack.launchGateway(gatewayJar, logs, gatewayPort, serverUrl, gatewayArgs);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            stack.close();
+            throw e;
+        }
+        return stack;
+    }
+
+    String getGatewayUrl() {
+        return gatewayUrl;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            Process process = processes.get(i);
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void launchGateway(Path jar, Path logs, int port, String serverUrl, List<String> args)
+            throws IOException, InterruptedException {
+        List<String> gatewayArgs = new ArrayList<>(List.of(
+                "--server.port=" + port,
+                "--shareit-server.url=" + serverUrl));
+        gatewayArgs.addAll(args);
+        Process gateway = launch(jar, logs.resolve("gateway.log"), gatewayArgs);
+        processes.add(gateway);
+        waitUntilUp(gatewayUrl + "/actuator/health", gateway, logs.resolve("gateway.log"));
+    }
+
+    private static Path gatewayJar(Map<String, String> options) throws IOException {
+        return options.containsKey("gateway-jar") ? Path.of(options.get("gateway-jar"))
+                : findJar(Path.of("gateway", "target"), "shareit-gateway-", ".jar");
+    }
+
+    private static Process launch(Path jar, Path log, List<String> args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(args);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void waitUntilUp(String url, Process process, Path log) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Процесс завершился при запуске, см. " + log);
+            }
+            try {
+                if (client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // ещё не слушает порт
+            }
+            TimeUnit.MILLISECONDS.sleep(500);
+        }
+        throw new IllegalStateException("Не дождались запуска " + url + ", см. " + log);
+    }
+
+    private static Path findJar(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(prefix)
+                            && file.getFileName().toString().endsWith(suffix))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Не найден " + prefix + "*" + suffix
+                            + " в " + directory + ", сначала выполните mvn package -DskipTests"));
+        } catch (NoSuchFileException e) {
+            throw new UncheckedIOException("Нет каталога " + directory + ", запускайте из корня репозитория", e);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> split(String args) {
+        return args == null || args.isBlank() ? List.of() : Arrays.asList(args.trim().split("\\s+"));
+    }
+}
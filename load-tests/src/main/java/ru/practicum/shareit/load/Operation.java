@@ -0,0 +1,36 @@
+package ru.practicum.shareit.load;
+
+import java.util.Arrays;
+
+/**
+ * Операции нагрузочной смеси; имя совпадает с ключом в workload.properties.
+ */
+enum Operation {
+    SEARCH_ITEMS("search-items"),
+    GET_ITEM("get-item"),
+    OWNER_ITEMS("owner-items"),
+    BOOKINGS_BY_STATE("bookings-by-state"),
+    OWNER_BOOKINGS("owner-bookings"),
+    CREATE_BOOKING("create-booking"),
+    CONFIRM_BOOKING("confirm-booking"),
+    REQUEST_FEED("request-feed"),
+    OWN_REQUESTS("own-requests");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    static Operation byName(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестная операция: " + key));
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.load;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Данные прогона и выполнение операций смеси. Бронирования создаются в непересекающихся
+ * окнах времени, поэтому конфликты 409 в отчёте означают ошибку server, а не нагрузки.
+ */
+class Scenario {
+    private static final List<String> ITEM_NAMES = List.of("Дрель", "Отвёртка", "Пила", "Лестница", "Палатка");
+    private static final List<String> SEARCH_TEXTS = List.of("дрель", "отвёртка", "пила", "аккумуляторная",
+            "туристическая");
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final ShareItApi api;
+    private final LatencyReport report;
+    private final long[] userIds;
+    private final long[] itemIds;
+    private final int[] itemOwners;
+    private final Queue<long[]> waitingBookings = new ConcurrentLinkedQueue<>();
+    private final LocalDateTime bookingsFrom = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    private final AtomicLong bookingSlot = new AtomicLong();
+
+    private Scenario(ShareItApi api, LatencyReport report, long[] userIds, long[] itemIds, int[] itemOwners) {
+        this.api = api;
+        this.report = report;
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.itemOwners = itemOwners;
+    }
+
+    static Scenario seed(ShareItApi api, LatencyReport report, int users, int items) {
+        if (users < 2) {
+            throw new IllegalArgumentException("Для бронирований нужно хотя бы два пользователя");
+        }
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        long[] userIds = new long[users];
+        long[] requestIds = new long[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = api.post("/users", null, Map.of("name", "User " + i,
+                    "email", "load-" + run + "-" + i + "@yandex.ru")).id();
+            requestIds[i] = api.post("/requests", userIds[i], Map.of("description",
+                    "Нужна " + ITEM_NAMES.get(i % ITEM_NAMES.size()).toLowerCase())).id();
+        }
+        long[] itemIds = new long[items];
+        int[] itemOwners = new int[items];
+        for (int i = 0; i < items; i++) {
+            itemOwners[i] = i % users;
+            Map<String, Object> item = new HashMap<>(Map.of(
+                    "name", ITEM_NAMES.get(i % ITEM_NAMES.size()) + " " + i,
+                    "description", (i % 2 == 0 ? "Аккумуляторная" : "Туристическая") + " вещь " + i,
+                    "available", true));
+            if (i % 3 == 0) {
+                item.put("requestId", requestIds[(i + 1) % users]);
+            }
+            itemIds[i] = api.post("/items", userIds[itemOwners[i]], item).id();
+        }
+        System.out.printf("Созданы %d пользователей, %d запросов и %d вещей%n", users, users, items);
+        return new Scenario(api, report, userIds, itemIds, itemOwners);
+    }
+
+    void execute(Operation operation, Random random) {
+        long user = userIds[random.nextInt(userIds.length)];
+        switch (operation) {
+            case SEARCH_ITEMS:
+                timed(operation, () -> api.get("/items/search?text="
+                        + encode(SEARCH_TEXTS.get(random.nextInt(SEARCH_TEXTS.size()))) + "&from=0&size=20", user));
+                break;
+            case GET_ITEM:
+                timed(operation, () -> api.get("/items/" + itemIds[random.nextInt(itemIds.length)], user));
+                break;
+            case OWNER_ITEMS:
+                timed(operation, () -> api.get("/items?from=0&size=20", user));
+                break;
+            case BOOKINGS_BY_STATE:
+                timed(operation, () -> api.get("/bookings?state=" + STATES.get(random.nextInt(STATES.size()))
+                        + "&from=0&size=20", user));
+                break;
+            case OWNER_BOOKINGS:
+                timed(operation, () -> api.get("/bookings/owner?state=" + STATES.get(random.nextInt(STATES.size()))
+                        + "&from=0&size=20", user));
+                break;
+            case CREATE_BOOKING:
+                createBooking(random, true);
+                break;
+            case CONFIRM_BOOKING:
+                long[] booking = waitingBookings.poll();
+                if (booking == null) {
+                    booking = createBooking(random, false);
+                }
+                if (booking != null) {
+                    long[] confirmed = booking;
+                    timed(operation, () -> api.patch("/bookings/" + confirmed[0] + "?approved="
+                            + random.nextBoolean(), confirmed[1]));
+                }
+                break;
+            case REQUEST_FEED:
+                timed(operation, () -> api.get("/requests/all?from=0&size=20", user));
+                break;
+            case OWN_REQUESTS:
+                timed(operation, () -> api.get("/requests", user));
+                break;
+            default:
+                throw new IllegalArgumentException("Операция не поддерживается: " + operation);
+        }
+    }
+
+    /**
+     * Возвращает пару {id бронирования, id владельца вещи} или null, если бронирование не создано.
+     */
+    private long[] createBooking(Random random, boolean recorded) {
+        int item = random.nextInt(itemIds.length);
+        int owner = itemOwners[item];
+        long booker = userIds[(owner + 1 + random.nextInt(userIds.length - 1)) % userIds.length];
+        LocalDateTime start = bookingsFrom.plusMinutes(2 * bookingSlot.getAndIncrement());
+        Supplier<ShareItApi.Response> call = () -> api.post("/bookings", booker, Map.of(
+                "itemId", itemIds[item],
+                "start", start.format(DATE_TIME),
+                "end", start.plusMinutes(1).format(DATE_TIME)));
+        ShareItApi.Response response = recorded ? timed(Operation.CREATE_BOOKING, call) : call.get();
+        if (!response.isSuccessful()) {
+            return null;
+        }
+        long[] booking = {response.id(), userIds[owner]};
+        if (recorded) {
+            waitingBookings.add(booking);
+        }
+        return booking;
+    }
+
+    private ShareItApi.Response timed(Operation operation, Supplier<ShareItApi.Response> call) {
+        long start = System.nanoTime();
+        ShareItApi.Response response = call.get();
+        report.record(operation, System.nanoTime() - start, response.isSuccessful());
+        return response;
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+}
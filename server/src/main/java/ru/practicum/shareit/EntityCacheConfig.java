@@ -0,0 +1,73 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Кэш второго уровня Hibernate для User и Item на Caffeine. Сущности кэшируются в режиме READ_WRITE:
+ * изменение и удаление через Hibernate обновляют кэш, правки в обход JPA станут видны только через ttl.
+ * Метрики: cache.gets{cache=<класс сущности>, result=hit|miss}, cache.evictions, cache.size.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    private static final List<Class<?>> CACHED_ENTITIES = List.of(User.class, Item.class);
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "shareit.entity-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager entityCacheManager(@Value("${shareit.entity-cache.max-size:10000}") long maxSize,
+                                           @Value("${shareit.entity-cache.ttl:10m}") Duration ttl,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit-entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (Class<?> entity : CACHED_ENTITIES) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setNativeStatisticsEnabled(true);
+            javax.cache.Cache<Object, Object> cache = cacheManager.createCache(entity.getName(), configuration);
+            meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry,
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class), entity.getName()));
+        }
+        return cacheManager;
+    }
+
+    /**
+     * hibernate-jcache в classpath включает кэш второго уровня сам, поэтому при выключенном кэше
+     * это нужно запретить явно.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(ObjectProvider<CacheManager> cacheManager) {
+        CacheManager entityCacheManager = cacheManager.getIfAvailable();
+        return properties -> {
+            if (entityCacheManager == null) {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                return;
+            }
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
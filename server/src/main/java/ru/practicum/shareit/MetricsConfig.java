@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.StateStatus;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Тег state у http.server.requests, чтобы задержки списков бронирований различались по фильтру.
+ * Значения ограничены {@link StateStatus}: без параметра — NONE, неизвестное значение — INVALID.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final Set<String> STATES = Arrays.stream(StateStatus.values())
+            .map(Enum::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    @Bean
+    public WebMvcTagsContributor bookingStateTagContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Throwable exception) {
+                return Tags.of(stateTag(request.getParameter("state")));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+
+    static Tag stateTag(String state) {
+        if (state == null) {
+            return Tag.of("state", "NONE");
+        }
+        return Tag.of("state", STATES.contains(state) ? state : "INVALID");
+    }
+}
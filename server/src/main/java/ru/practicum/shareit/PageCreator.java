@@ -8,9 +8,13 @@ public class PageCreator {
         if (from < 0) {
             throw new ConflictException("Стартовый элемент не может быть меньше 0");
         }
+        checkSize(size);
+        return from / size;
+    }
+
+    public static void checkSize(Integer size) {
         if (size == 0) {
             throw new ConflictException("Размер не может быть равен 0");
         }
-        return from > size ? 0 : from / size;
     }
 }
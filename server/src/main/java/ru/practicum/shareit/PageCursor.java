@@ -0,0 +1,60 @@
+package ru.practicum.shareit;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.error.exception.ConflictException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Курсор для постраничной выдачи по ключу (keyset): хранит ключ сортировки последнего
+ * элемента страницы, следующая страница начинается строго после него.
+ * Клиенту передаётся в непрозрачном виде через заголовок {@link #NEXT_CURSOR_HEADER}.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    public static PageCursor of(LocalDateTime time, Long id) {
+        return new PageCursor(time, id);
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    /**
+     * Пустой курсор означает первую страницу, для неё возвращается null.
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return new PageCursor(parts[0].isEmpty() ? null : LocalDateTime.parse(parts[0]),
+                    Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ConflictException("Некорректный курсор страницы: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String key = (time == null ? "" : time.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
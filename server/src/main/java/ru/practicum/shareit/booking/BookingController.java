@@ -3,12 +3,16 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.PageCursor;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.xml.bind.ValidationException;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -40,6 +44,16 @@ public class BookingController {
         return BookingMapper.toBookingDto(bookingService.bookingConfirmation(userId, bookingId, approved));
     }
 
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> bookingConfirmationAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestParam(value = "approved") boolean approved,
+                                                              @RequestBody List<Long> bookingIds,
+                                                              HttpServletRequest httpServletRequest) {
+        log.info("Получен запрос к эндпоинту: {} {}, userId {}, бронирований {}, статус {}",
+                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, bookingIds.size(), approved);
+        return bookingService.bookingConfirmationAll(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingOutputDto getById(@RequestHeader("X-Sharer-User-Id") long userId,
                                    @PathVariable Long bookingId, HttpServletRequest httpServletRequest) {
@@ -56,13 +70,17 @@ public class BookingController {
                                                               defaultValue = "0") Integer from,
                                                       @RequestParam(value = "size", required = false,
                                                               defaultValue = "20") Integer size,
-                                                     HttpServletRequest httpServletRequest) {
+                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                     HttpServletRequest httpServletRequest,
+                                                     HttpServletResponse httpServletResponse) {
 
         log.info("Получен запрос к эндпоинту: {} {}, значение X-Sharer-User-Id {}, параметр state {}," +
-                        " from {}, size {}",
-                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, state, from, size);
-        return bookingService.getAllBookingByUser(userId, state, from, size)
-                .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                        " from {}, size {}, cursor {}",
+                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, state, from, size, cursor);
+        List<BookingView> bookings = cursor == null
+                ? bookingService.getAllBookingByUser(userId, state, from, size)
+                : bookingService.getAllBookingByUserAfter(userId, state, PageCursor.decode(cursor), size);
+        return toBookingDtoPage(bookings, cursor, size, httpServletResponse);
     }
 
     @GetMapping("/owner")
@@ -73,11 +91,25 @@ public class BookingController {
                                                                defaultValue = "0") Integer from,
                                                         @RequestParam(value = "size", required = false,
                                                                defaultValue = "20") Integer size,
-                                                      HttpServletRequest httpServletRequest) {
+                                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                                      HttpServletRequest httpServletRequest,
+                                                      HttpServletResponse httpServletResponse) {
         log.info("Получен запрос к эндпоинту: {} {}, значение X-Sharer-User-Id {}, параметр state {}," +
-                        " from {}, size {}",
-                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, state, from, size);
-        return bookingService.getAllBookingByOwner(userId, state, from, size)
-                .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                        " from {}, size {}, cursor {}",
+                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, state, from, size, cursor);
+        List<BookingView> bookings = cursor == null
+                ? bookingService.getAllBookingByOwner(userId, state, from, size)
+                : bookingService.getAllBookingByOwnerAfter(userId, state, PageCursor.decode(cursor), size);
+        return toBookingDtoPage(bookings, cursor, size, httpServletResponse);
+    }
+
+    private List<BookingOutputDto> toBookingDtoPage(List<BookingView> bookings, String cursor, Integer size,
+                                                    HttpServletResponse httpServletResponse) {
+        if (cursor != null && bookings.size() == size) {
+            BookingView last = bookings.get(bookings.size() - 1);
+            httpServletResponse.setHeader(PageCursor.NEXT_CURSOR_HEADER,
+                    PageCursor.of(last.getStart(), last.getId()).encode());
+        }
+        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 }
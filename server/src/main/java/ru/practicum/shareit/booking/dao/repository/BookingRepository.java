@@ -1,25 +1,60 @@
 package ru.practicum.shareit.booking.dao.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    Optional<List<Booking>> findAllByBooker_Id(Long bookerId, Pageable pageable);
-
-    Optional<List<Booking>> findAllByItemOwnerId(Long ownerId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
     boolean existsBookingByBooker_IdAndItem_IdAndStatusEqualsAndEndIsBefore(long bookerId, long itemId,
                                                                             BookingStatus status, LocalDateTime end);
 
-    Optional<Booking> findFirstBookingByItem_IdAndEndIsBeforeOrderByEndDesc(long itemId, LocalDateTime now);
-
-    Optional<Booking> findFirstBookingByItem_IdAndStartIsAfterOrderByStart(long itemId, LocalDateTime now);
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = ?1 and b.id <> ?2 and b.status in ?3 and b.start < ?5 and b.end > ?4")
+    boolean existsOverlapping(long itemId, long excludedBookingId, Collection<BookingStatus> statuses,
+                              LocalDateTime start, LocalDateTime end);
+
+    @Override
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("select b from Booking b where b.item.id in ?1 and b.end = " +
+            "(select max(lb.end) from Booking lb where lb.item.id = b.item.id and lb.end < ?2)")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("select b from Booking b where b.item.id in ?1 and b.start = " +
+            "(select min(nb.start) from Booking nb where nb.item.id = b.item.id and nb.start > ?2)")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingStatusView(b.id, b.status, i.owner.id, i.id, " +
+            "b.start, b.end) from Booking b join b.item i where b.id in ?1")
+    List<BookingStatusView> findStatusViews(Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingStatusView(b.id, b.status, i.owner.id, i.id, " +
+            "b.start, b.end) from Booking b join b.item i " +
+            "where i.id in ?1 and b.status in ?2 and b.start < ?4 and b.end > ?3")
+    List<BookingStatusView> findStatusViewsInPeriod(Collection<Long> itemIds, Collection<BookingStatus> statuses,
+                                                    LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Меняет статус бронирований владельца одним запросом, только если текущий статус входит в expected.
+     * Возвращает число изменённых строк. Контекст персистентности после запроса очищается, чтобы
+     * загруженные ранее бронирования не перезаписали новый статус при flush.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = ?4 where b.id in ?1 and b.status in ?3 " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateStatus(Collection<Long> ids, long ownerId, Collection<BookingStatus> expected, BookingStatus status);
 
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dao.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<BookingView> findPage(Specification<Booking> specification, Pageable pageable);
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.dao.specification;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.PageCursor;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.StateStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.exception.BadRequestException;
+import ru.practicum.shareit.error.exception.ConflictException;
+
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+
+    public static Specification<Booking> byBooker(long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byItemOwner(long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> byState(StateStatus state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return (root, query, cb) -> cb.conjunction();
+            case CURRENT:
+                return (root, query, cb) -> cb.and(cb.lessThan(root.get("start"), now),
+                        cb.greaterThan(root.get("end"), now));
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.get("end"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.get("start"), now);
+            case WAITING:
+                return byStatus(BookingStatus.WAITING);
+            case REJECTED:
+                return byStatus(BookingStatus.REJECTED);
+            default:
+                throw new BadRequestException("Использование такого статуса невозможно");
+        }
+    }
+
+    public static Specification<Booking> afterCursor(PageCursor cursor) {
+        if (cursor == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        if (cursor.getTime() == null) {
+            throw new ConflictException("Курсор не содержит времени начала бронирования");
+        }
+        return (root, query, cb) -> cb.or(cb.lessThan(root.get("start"), cursor.getTime()),
+                cb.and(cb.equal(root.get("start"), cursor.getTime()), cb.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    private static Specification<Booking> byStatus(BookingStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
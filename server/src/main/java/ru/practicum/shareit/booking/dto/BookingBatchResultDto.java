@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.BookingStatus;
+
+/**
+ * Результат пакетного подтверждения для одного бронирования: итоговый статус и причина отказа, если он был.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private long bookingId;
+    private BookingStatus status;
+    private String error;
+}
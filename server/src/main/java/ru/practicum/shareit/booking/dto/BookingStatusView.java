@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция для смены статуса: текущий статус бронирования, владелец вещи и период для проверки пересечений.
+ */
+@Value
+public class BookingStatusView {
+    long id;
+    BookingStatus status;
+    long ownerId;
+    long itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+
+    public boolean overlaps(BookingStatusView other) {
+        return itemId == other.itemId && start.isBefore(other.end) && end.isAfter(other.start);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Плоская проекция бронирования для списков: только колонки, которые попадают в {@link BookingOutputDto}.
+ */
+@Value
+public class BookingView {
+    long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+    long bookerId;
+    String bookerName;
+    String bookerEmail;
+    long itemId;
+    String itemName;
+    String itemDescription;
+    boolean itemAvailable;
+    Long itemRequestId;
+}
@@ -2,13 +2,18 @@ package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
+import java.util.ArrayList;
+
 public class BookingMapper {
 
     public static BookingOutputDto toBookingDto(Booking booking) {
@@ -22,6 +27,18 @@ public class BookingMapper {
         );
     }
 
+    public static BookingOutputDto toBookingDto(BookingView booking) {
+        return new BookingOutputDto(
+                booking.getId(),
+                new UserDto(booking.getBookerId(), booking.getBookerName(), booking.getBookerEmail()),
+                new ItemDto(booking.getItemId(), booking.getItemName(), booking.getItemDescription(),
+                        booking.isItemAvailable(), new ArrayList<>(), booking.getItemRequestId()),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus()
+        );
+    }
+
     public static BookingOutputDtoForItem toBookingDtoForItem(Booking booking) {
         return new BookingOutputDtoForItem(
                 booking.getId(),
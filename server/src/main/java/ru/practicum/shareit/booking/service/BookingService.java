@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.booking.StateStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 
 import javax.xml.bind.ValidationException;
@@ -12,9 +15,15 @@ public interface BookingService {
 
     Booking bookingConfirmation(Long userId, Long bookingId, boolean approved);
 
+    List<BookingBatchResultDto> bookingConfirmationAll(Long userId, List<Long> bookingIds, boolean approved);
+
     Booking getById(Long userId, Long bookingId);
 
-    List<Booking> getAllBookingByUser(Long userId, StateStatus state, Integer from, Integer size);
+    List<BookingView> getAllBookingByUser(Long userId, StateStatus state, Integer from, Integer size);
+
+    List<BookingView> getAllBookingByOwner(Long userId, StateStatus state, Integer from, Integer size);
+
+    List<BookingView> getAllBookingByUserAfter(Long userId, StateStatus state, PageCursor cursor, Integer size);
 
-    List<Booking> getAllBookingByOwner(Long userId, StateStatus state, Integer from, Integer size);
+    List<BookingView> getAllBookingByOwnerAfter(Long userId, StateStatus state, PageCursor cursor, Integer size);
 }
@@ -3,6 +3,8 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface BookingServiceForItem {
@@ -10,5 +12,9 @@ public interface BookingServiceForItem {
 
     Optional<Booking> getNextBooking(long itemId);
 
+    Map<Long, Booking> getLastBookings(Collection<Long> itemIds);
+
+    Map<Long, Booking> getNextBookings(Collection<Long> itemIds);
+
     boolean checkBooking(long userId, long itemId, BookingStatus status);
 }
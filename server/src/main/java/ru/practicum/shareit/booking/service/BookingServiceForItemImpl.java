@@ -7,7 +7,12 @@ import ru.practicum.shareit.booking.dao.repository.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -16,14 +21,22 @@ public class BookingServiceForItemImpl implements BookingServiceForItem {
 
     @Override
     public Optional<Booking> getLastBooking(long itemId) {
-        return bookingRepository.findFirstBookingByItem_IdAndEndIsBeforeOrderByEndDesc(itemId,
-                LocalDateTime.now());
+        return Optional.ofNullable(getLastBookings(List.of(itemId)).get(itemId));
     }
 
     @Override
     public Optional<Booking> getNextBooking(long itemId) {
-        return  bookingRepository.findFirstBookingByItem_IdAndStartIsAfterOrderByStart(itemId,
-                LocalDateTime.now());
+        return Optional.ofNullable(getNextBookings(List.of(itemId)).get(itemId));
+    }
+
+    @Override
+    public Map<Long, Booking> getLastBookings(Collection<Long> itemIds) {
+        return groupByItemId(bookingRepository.findLastBookingsByItemIds(itemIds, LocalDateTime.now()));
+    }
+
+    @Override
+    public Map<Long, Booking> getNextBookings(Collection<Long> itemIds) {
+        return groupByItemId(bookingRepository.findNextBookingsByItemIds(itemIds, LocalDateTime.now()));
     }
 
     @Override
@@ -32,4 +45,9 @@ public class BookingServiceForItemImpl implements BookingServiceForItem {
                 itemId, status, LocalDateTime.now());
     }
 
+    private Map<Long, Booking> groupByItemId(List<Booking> bookings) {
+        return bookings.stream().collect(Collectors.toMap(booking -> booking.getItem().getId(),
+                Function.identity(), (first, second) -> first));
+    }
+
 }
@@ -1,71 +1,161 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.PageCreator;
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.StateStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.dao.repository.BookingRepository;
 import ru.practicum.shareit.error.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
-import javax.transaction.Transactional;
 import javax.xml.bind.ValidationException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.booking.dao.specification.BookingSpecifications.*;
+
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    /**
+     * Занимают вещь на свой период только одобренные бронирования; ожидающие подтверждения могут пересекаться,
+     * выбор между ними делает владелец.
+     */
+    private static final Set<BookingStatus> BLOCKING_STATUSES = EnumSet.of(BookingStatus.APPROVED);
+    private static final Set<BookingStatus> CHANGEABLE_STATUSES = EnumSet.complementOf(
+            EnumSet.of(BookingStatus.APPROVED));
+
+    private static final Sort BOOKING_SORT = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
 
     @Override
-    @Transactional(rollbackOn = Exception.class)
+    @Transactional(rollbackFor = Exception.class)
     public Booking add(Long userId, BookingInputDto bookingInputDto) throws ValidationException {
-        Booking booking = BookingMapper.toBooking(bookingInputDto, userService.getById(userId),
-                itemService.getById(bookingInputDto.getItemId(), userId));
+        User booker = userService.getById(userId);
+        Item item = itemService.lock(bookingInputDto.getItemId());
+        Booking booking = BookingMapper.toBooking(bookingInputDto, booker, item);
         checkInputBookingDto(userId, booking);
         booking.setStatus(BookingStatus.WAITING);
-        checkItemAvailable(itemService.getById(bookingInputDto.getItemId(), userId));
-        return bookingRepository.save(booking);
+        checkItemAvailable(item);
+        checkNotOverlapping(booking);
+        return save(booking);
     }
 
+    /**
+     * Вместо сохранения сущности статус меняется условным UPDATE, который проверяет и владельца вещи.
+     * Отказ не требует проверки пересечений, поэтому UPDATE выполняется сразу, а бронирование читается
+     * после него: для ответа или, если строка не изменилась, чтобы выбрать между 404, 400, 403 и 409.
+     * Одобрение сначала читает бронирование, чтобы заблокировать вещь и проверить пересечения; из
+     * параллельных подтверждений и отказов проходит первое, остальные получают ConflictException.
+     */
     @Override
-    @Transactional(rollbackOn = Exception.class)
+    @Transactional(rollbackFor = Exception.class)
     public Booking bookingConfirmation(Long userId, Long bookingId, boolean approved) {
+        if (!approved) {
+            if (bookingRepository.updateStatus(List.of(bookingId), userId, CHANGEABLE_STATUSES,
+                    BookingStatus.REJECTED) == 0) {
+                throw confirmationFailure(userId, bookingId);
+            }
+            return getBooking(bookingId);
+        }
         Booking booking = getBooking(bookingId);
         if (booking.getStatus() == BookingStatus.APPROVED) {
             throw new BadRequestException("Нельзя изменить статус одобренного бронирования");
         }
-        BookingStatus status;
-        if (approved) {
-            status = BookingStatus.APPROVED;
-        } else {
-            status = BookingStatus.REJECTED;
-        }
-        if (checkOwner(userId, booking)) {
-            booking.setStatus(status);
-        } else {
+        if (!checkOwner(userId, booking)) {
             throw new AccessErrorException("Пользователь не является владельцем вещи");
         }
+        itemService.lock(booking.getItem().getId());
+        checkNotOverlapping(booking);
+        if (bookingRepository.updateStatus(List.of(bookingId), userId, List.of(booking.getStatus()),
+                BookingStatus.APPROVED) == 0) {
+            throw new ConflictException("Статус бронирования " + bookingId + " изменён другим запросом");
+        }
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
 
-        return bookingRepository.save(booking);
+    /**
+     * В отличие от {@link #bookingConfirmation} меняются только бронирования в статусе WAITING.
+     * Статус обновляется одним запросом для всего списка; при одобрении вещи блокируются и бронирования,
+     * пересекающиеся с одобренными или с одобряемыми раньше в этом же списке, отклоняются с ошибкой.
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<BookingBatchResultDto> bookingConfirmationAll(Long userId, List<Long> bookingIds, boolean approved) {
+        userService.checkExists(userId);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        Map<Long, BookingStatusView> views = findStatusViews(bookingIds);
+        Map<Long, BookingBatchResultDto> results = new LinkedHashMap<>();
+        List<Long> candidates = new ArrayList<>();
+        for (Long bookingId : new LinkedHashSet<>(bookingIds)) {
+            BookingStatusView view = views.get(bookingId);
+            if (view == null || view.getOwnerId() != userId || view.getStatus() != BookingStatus.WAITING) {
+                BookingStatus current = view != null && view.getOwnerId() == userId ? view.getStatus() : null;
+                results.put(bookingId, new BookingBatchResultDto(bookingId, current,
+                        confirmationError(userId, bookingId, view).getMessage()));
+            } else {
+                // место в результате резервируем, чтобы сохранить порядок запроса
+                results.put(bookingId, null);
+                candidates.add(bookingId);
+            }
+        }
+        if (approved && !candidates.isEmpty()) {
+            candidates = withoutOverlapping(candidates, views, results);
+        }
+        if (!candidates.isEmpty()) {
+            int updated = bookingRepository.updateStatus(candidates, userId, List.of(BookingStatus.WAITING),
+                    status);
+            if (updated == candidates.size()) {
+                candidates.forEach(bookingId -> results.put(bookingId,
+                        new BookingBatchResultDto(bookingId, status, null)));
+            } else {
+                // часть бронирований успели изменить параллельно, итог берём из базы
+                Map<Long, BookingStatusView> actual = findStatusViews(candidates);
+                for (Long bookingId : candidates) {
+                    BookingStatusView view = actual.get(bookingId);
+                    BookingStatus current = view == null ? null : view.getStatus();
+                    results.put(bookingId, new BookingBatchResultDto(bookingId, current,
+                            current == status ? null : "Статус бронирования изменён другим запросом"));
+                }
+            }
+        }
+        return new ArrayList<>(results.values());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Booking getById(Long userId, Long bookingId) {
         Booking booking = getBooking(bookingId);
         if (checkOwner(userId, booking) || booking.getBooker().getId() == userId) {
@@ -77,53 +167,104 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> getAllBookingByUser(Long userId, StateStatus state, Integer from, Integer size) {
-        userService.getById(userId);
-        Pageable pageable = PageRequest.of(PageCreator.getPage(from, size), size,
-                Sort.by(Sort.Direction.DESC, "start"));
-        List<Booking> bookings = bookingRepository.findAllByBooker_Id(userId, pageable)
-                .orElseThrow(() -> new BookingNotFoundException("Бронирований для пользователя " + userId
-                        + " не найдено"));
-        return getBookingByStateStatus(bookings, state);
+    @Transactional(readOnly = true)
+    public List<BookingView> getAllBookingByUser(Long userId, StateStatus state, Integer from, Integer size) {
+        userService.checkExists(userId);
+        return bookingRepository.findPage(byBooker(userId).and(byState(state, LocalDateTime.now())),
+                getPageable(from, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingView> getAllBookingByOwner(Long userId, StateStatus state, Integer from, Integer size) {
+        userService.checkExists(userId);
+        return bookingRepository.findPage(byItemOwner(userId).and(byState(state, LocalDateTime.now())),
+                getPageable(from, size));
     }
 
     @Override
-    public List<Booking> getAllBookingByOwner(Long userId, StateStatus state, Integer from, Integer size) {
-        userService.getById(userId);
-        Pageable pageable = PageRequest.of(PageCreator.getPage(from, size), size,
-                Sort.by(Sort.Direction.DESC, "start"));
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerId(userId, pageable)
-                .orElseThrow(() -> new BookingNotFoundException("Бронирований вещей пользователя " + userId
-                        + " не найдено"));
-        return getBookingByStateStatus(bookings, state);
-    }
-
-   private List<Booking> getBookingByStateStatus(List<Booking> bookings, StateStatus state) {
-       switch (state) {
-           case ALL:
-               return bookings;
-           case CURRENT:
-               return bookings.stream().filter(booking -> LocalDateTime.now().withNano(0)
-                       .isAfter(booking.getStart()) &&
-                       LocalDateTime.now().withNano(0)
-                               .isBefore(booking.getEnd())).collect(Collectors.toList());
-           case PAST:
-               return bookings.stream().filter(booking -> LocalDateTime.now().withNano(0)
-                               .isAfter(booking.getEnd()))
-                       .collect(Collectors.toList());
-           case FUTURE:
-               return bookings.stream().filter(booking -> LocalDateTime.now().isBefore(booking.getStart()))
-                       .collect(Collectors.toList());
-           case WAITING:
-               return bookings.stream().filter(booking -> booking.getStatus() == BookingStatus.WAITING)
-                       .collect(Collectors.toList());
-           case REJECTED:
-               return bookings.stream().filter(booking -> booking.getStatus() == BookingStatus.REJECTED)
-                       .collect(Collectors.toList());
-           default:
-               throw new BadRequestException("Использование такого статуса невозможно");
-       }
-   }
+    @Transactional(readOnly = true)
+    public List<BookingView> getAllBookingByUserAfter(Long userId, StateStatus state, PageCursor cursor, Integer size) {
+        PageCreator.checkSize(size);
+        userService.checkExists(userId);
+        return bookingRepository.findPage(byBooker(userId).and(byState(state, LocalDateTime.now()))
+                .and(afterCursor(cursor)), PageRequest.of(0, size, BOOKING_SORT));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingView> getAllBookingByOwnerAfter(Long userId, StateStatus state, PageCursor cursor, Integer size) {
+        PageCreator.checkSize(size);
+        userService.checkExists(userId);
+        return bookingRepository.findPage(byItemOwner(userId).and(byState(state, LocalDateTime.now()))
+                .and(afterCursor(cursor)), PageRequest.of(0, size, BOOKING_SORT));
+    }
+
+    private Pageable getPageable(Integer from, Integer size) {
+        return PageRequest.of(PageCreator.getPage(from, size), size, BOOKING_SORT);
+    }
+
+    private Map<Long, BookingStatusView> findStatusViews(Collection<Long> bookingIds) {
+        return bookingRepository.findStatusViews(bookingIds).stream()
+                .collect(Collectors.toMap(BookingStatusView::getId, Function.identity()));
+    }
+
+    /**
+     * Оставляет одобряемые бронирования, которые не пересекаются с уже одобренными и друг с другом;
+     * для остальных записывает ошибку в results. Из пересекающихся одобряется стоящее раньше в списке.
+     */
+    private List<Long> withoutOverlapping(List<Long> candidates, Map<Long, BookingStatusView> views,
+                                          Map<Long, BookingBatchResultDto> results) {
+        List<BookingStatusView> approving = candidates.stream().map(views::get).collect(Collectors.toList());
+        Set<Long> itemIds = approving.stream().map(BookingStatusView::getItemId).collect(Collectors.toSet());
+        itemService.lockAll(itemIds);
+        LocalDateTime start = approving.stream().map(BookingStatusView::getStart)
+                .min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime end = approving.stream().map(BookingStatusView::getEnd)
+                .max(LocalDateTime::compareTo).orElseThrow();
+        List<BookingStatusView> occupied = new ArrayList<>(bookingRepository.findStatusViewsInPeriod(itemIds,
+                BLOCKING_STATUSES, start, end));
+        List<Long> accepted = new ArrayList<>();
+        for (BookingStatusView view : approving) {
+            if (occupied.stream().anyMatch(view::overlaps)) {
+                results.put(view.getId(), new BookingBatchResultDto(view.getId(), view.getStatus(),
+                        "Вещь " + view.getItemId() + " уже забронирована на это время"));
+            } else {
+                occupied.add(view);
+                accepted.add(view.getId());
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Причина, по которой нельзя изменить статус, в том же порядке проверок, что и в {@link #bookingConfirmation};
+     * view == null, если бронирования нет.
+     */
+    private RuntimeException confirmationError(Long userId, Long bookingId, BookingStatusView view) {
+        if (view == null) {
+            return new BookingNotFoundException("Бронирования с таким id: " + bookingId + " не существует");
+        }
+        if (view.getStatus() == BookingStatus.APPROVED) {
+            return new BadRequestException("Нельзя изменить статус одобренного бронирования");
+        }
+        if (view.getOwnerId() != userId) {
+            return new AccessErrorException("Пользователь не является владельцем вещи");
+        }
+        return new BadRequestException("Нельзя изменить статус бронирования " + bookingId
+                + ", текущий статус " + view.getStatus());
+    }
+
+    /**
+     * Причина, по которой условный UPDATE не изменил бронирование.
+     */
+    private RuntimeException confirmationFailure(Long userId, Long bookingId) {
+        BookingStatusView view = findStatusViews(List.of(bookingId)).get(bookingId);
+        if (view == null || view.getStatus() == BookingStatus.APPROVED || view.getOwnerId() != userId) {
+            return confirmationError(userId, bookingId, view);
+        }
+        return new ConflictException("Статус бронирования " + bookingId + " изменён другим запросом");
+    }
 
     private Booking getBooking(Long bookingId) {
         return bookingRepository.findById(bookingId)
@@ -131,6 +272,24 @@ public class BookingServiceImpl implements BookingService {
                        + bookingId + " не существует"));
     }
 
+    /**
+     * Вызывается под блокировкой вещи, см. {@link ItemService#lock}.
+     */
+    private void checkNotOverlapping(Booking booking) {
+        if (bookingRepository.existsOverlapping(booking.getItem().getId(), booking.getId(), BLOCKING_STATUSES,
+                booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Вещь " + booking.getItem().getId() + " уже забронирована на это время");
+        }
+    }
+
+    private Booking save(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Вещь " + booking.getItem().getId() + " уже забронирована на это время");
+        }
+    }
+
     private boolean checkOwner(Long userId, Booking booking) {
        return booking.getItem().getOwner().getId() == userId;
     }
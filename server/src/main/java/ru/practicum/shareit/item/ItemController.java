@@ -3,14 +3,18 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,11 +40,19 @@ public class ItemController {
                                                            defaultValue = "0") Integer from,
                                                    @RequestParam(value = "size", required = false,
                                                            defaultValue = "20") Integer size,
-                                                   HttpServletRequest httpServletRequest) {
-        log.info("Получен запрос к эндпоинту: {} {}, значение X-Sharer-User-Id {}", httpServletRequest.getMethod(),
-                httpServletRequest.getRequestURI(), userId);
-        return itemService.getAllByUserId(userId, from, size)
-                .stream().map(ItemMapper::toItemDtoWithBooking).collect(Collectors.toList());
+                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                   HttpServletRequest httpServletRequest,
+                                                   HttpServletResponse httpServletResponse) {
+        log.info("Получен запрос к эндпоинту: {} {}, значение X-Sharer-User-Id {}, cursor {}",
+                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, cursor);
+        List<Item> items = cursor == null
+                ? itemService.getAllByUserId(userId, from, size)
+                : itemService.getAllByUserIdAfter(userId, PageCursor.decode(cursor), size);
+        if (cursor != null && items.size() == size) {
+            httpServletResponse.setHeader(PageCursor.NEXT_CURSOR_HEADER,
+                    PageCursor.of(items.get(items.size() - 1).getId()).encode());
+        }
+        return items.stream().map(ItemMapper::toItemDtoWithBooking).collect(Collectors.toList());
     }
 
     @GetMapping("/search")
@@ -63,6 +75,15 @@ public class ItemController {
         return ItemMapper.toItemDto(itemService.add(userId, itemDto));
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> addAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @RequestBody List<ItemDto> itemDtos,
+                                           HttpServletRequest httpServletRequest) {
+        log.info("Получен запрос к эндпоинту: {} {}, значение X-Sharer-User-Id {}, вещей в запросе {}",
+                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, itemDtos.size());
+        return itemService.addAll(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader("X-Sharer-User-Id") long userId,
                           @PathVariable long itemId,
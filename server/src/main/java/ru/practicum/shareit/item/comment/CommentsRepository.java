@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.comment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 public interface CommentsRepository extends JpaRepository<Comment, Long> {
-    Optional<List<Comment>> findAllByItem_Id(long itemId);
+    @Query("select new ru.practicum.shareit.item.comment.CommentDto(c.id, c.text, c.author.name, c.item.id, c.created) " +
+            "from Comment c where c.item.id in ?1")
+    List<CommentDto> findAllDtoByItemIds(Collection<Long> itemIds);
 }
@@ -2,20 +2,45 @@ package ru.practicum.shareit.item.dao.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.search.ItemSearchText;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwner(User owner, Pageable pageable);
+/**
+ * Условия по связанным сущностям записаны явно через {@code i.owner.id} и {@code i.itemRequest.id}: производные
+ * запросы по таким полям соединяют таблицу связи и фильтруют по её ключу, из-за чего индексы items не используются.
+ */
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    @Query("select i from Item i where i.owner.id = ?1")
+    List<Item> findByOwnerId(long ownerId, Pageable pageable);
 
-    @Query(" select i from Item i " +
-            "where lower(i.name) like lower(concat('%', ?1, '%')) " +
-            " or lower(i.description) like lower(concat('%', ?1, '%'))")
-    List<Item> searchByText(String text, Pageable pageable);
+    @Query("select i from Item i where i.owner.id = ?1 and i.id > ?2")
+    List<Item> findByOwnerIdAndIdGreaterThan(long ownerId, Long id, Pageable pageable);
 
+    @Query("select i from Item i where i.itemRequest.id = ?1")
     Set<Item> findAllByItemRequest_Id(long itemRequestId);
+
+    @Query("select i from Item i where i.itemRequest.id in ?1")
+    List<Item> findAllByItemRequest_IdIn(Collection<Long> itemRequestIds);
+
+    @Query("select i.id as id, i.name as name, i.description as description from Item i where i.available = true")
+    List<ItemSearchText> findAllSearchTexts();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long itemId);
+
+    /**
+     * Строки блокируются в порядке id, чтобы параллельные пакеты не взаимоблокировались.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> itemIds);
 }
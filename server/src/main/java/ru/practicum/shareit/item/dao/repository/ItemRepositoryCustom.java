@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dao.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+    List<Item> searchByText(String text, Pageable pageable);
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.dao.repository;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке названия или описания. На PostgreSQL like выполняется по триграммным
+ * GIN-индексам (миграция V3__item_search), а внутри совпадений в названии и в описании результаты
+ * упорядочены по similarity; на остальных базах — тот же like с приоритетом совпадений в названии.
+ */
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    private static final String TRIGRAM_SEARCH = "select i.item_id, i.owner_id, i.request_id, i.name, " +
+            "i.description, i.is_available from items i " +
+            "where i.is_available and (lower(i.name) like :pattern or lower(i.description) like :pattern) " +
+            "order by case when lower(i.name) like :pattern then 0 else 1 end, " +
+            "greatest(similarity(lower(i.name), :text), similarity(lower(i.description), :text)) desc, i.item_id";
+
+    private static final String LIKE_SEARCH = "select i from Item i where i.available = true " +
+            "and (lower(i.name) like :pattern or lower(i.description) like :pattern) " +
+            "order by case when lower(i.name) like :pattern then 0 else 1 end, i.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final boolean trigramSearch;
+
+    public ItemRepositoryCustomImpl(DataSource dataSource) {
+        this.trigramSearch = isPostgres(dataSource);
+    }
+
+    @Override
+    public List<Item> searchByText(String text, Pageable pageable) {
+        String lowerText = text.toLowerCase();
+        Query query;
+        if (trigramSearch) {
+            query = entityManager.createNativeQuery(TRIGRAM_SEARCH, Item.class)
+                    .setParameter("text", lowerText);
+        } else {
+            query = entityManager.createQuery(LIKE_SEARCH, Item.class);
+        }
+        @SuppressWarnings("unchecked")
+        List<Item> items = query.setParameter("pattern", "%" + lowerText + "%")
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return items;
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(productName) == DatabaseDriver.POSTGRESQL;
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Результат одной позиции пакетного добавления: созданная вещь либо причина отказа.
+ * index — позиция в исходном списке.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemBatchResultDto {
+    private int index;
+    private ItemDto item;
+    private String error;
+}
@@ -1,13 +1,11 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.ArrayList;
-import java.util.stream.Collectors;
 
 public class ItemMapper {
 
@@ -17,8 +15,7 @@ public class ItemMapper {
                 item.getName(),
                 item.getDescription(),
                 item.isAvailable(),
-                item.getComments() != null && item.getComments().size() != 0 ? item.getComments().stream()
-                        .map(CommentMapper::toCommentDto).collect(Collectors.toList()) : new ArrayList<>(),
+                item.getComments() != null ? new ArrayList<>(item.getComments()) : new ArrayList<>(),
                 item.getItemRequest() != null ? item.getItemRequest().getId() : null
         );
     }
@@ -29,8 +26,7 @@ public class ItemMapper {
                 item.getName(),
                 item.getDescription(),
                 item.isAvailable(),
-                item.getComments() != null && item.getComments().size() != 0 ? item.getComments().stream()
-                        .map(CommentMapper::toCommentDto).collect(Collectors.toList()) : new ArrayList<>(),
+                item.getComments() != null ? new ArrayList<>(item.getComments()) : new ArrayList<>(),
                 item.getLastBooking() != null ? BookingMapper.toBookingDtoForItem(item.getLastBooking()) : null,
                 item.getNextBooking() != null ? BookingMapper.toBookingDtoForItem(item.getNextBooking()) : null
         );
@@ -0,0 +1,260 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dao.repository.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс по названию и описанию доступных вещей, хранится в памяти процесса.
+ * Строится при старте приложения и обновляется при добавлении, изменении и удалении вещей,
+ * поэтому подходит только для развёртывания в одном экземпляре. Включается свойством
+ * {@code shareit.search.in-memory-index}.
+ * В отличие от поиска в базе, который ищет подстроку, индекс находит вещи только по началу слов.
+ * Изменения, сделанные в транзакции, попадают в индекс только после её фиксации: откат не оставляет
+ * в индексе текст, которого нет в базе.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final Timer rebuildTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, long[]> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> itemTerms = new HashMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.in-memory-index:false}") boolean enabled,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (enabled && registry != null) {
+            Gauge.builder("shareit.item.search.index.terms", this, ItemSearchIndex::termCount)
+                    .description("Количество термов в индексе поиска вещей")
+                    .register(registry);
+            Gauge.builder("shareit.item.search.index.memory", this, ItemSearchIndex::estimatedMemoryBytes)
+                    .description("Оценка памяти, занятой индексом поиска вещей")
+                    .baseUnit("bytes")
+                    .register(registry);
+            rebuildTimer = Timer.builder("shareit.item.search.index.rebuild")
+                    .description("Время построения индекса поиска вещей")
+                    .register(registry);
+        } else {
+            rebuildTimer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            itemTerms.clear();
+            Map<String, List<Long>> builder = new HashMap<>();
+            for (ItemSearchText item : itemRepository.findAllSearchTexts()) {
+                Set<String> terms = tokenize(item.getName(), item.getDescription());
+                itemTerms.put(item.getId(), terms);
+                terms.forEach(term -> builder.computeIfAbsent(term, key -> new ArrayList<>()).add(item.getId()));
+            }
+            builder.forEach((term, ids) -> postings.put(term,
+                    ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        if (rebuildTimer != null) {
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        log.info("Индекс поиска вещей построен за {} мс: вещей {}, термов {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), itemTerms.size(), postings.size());
+    }
+
+    public void index(Item item) {
+        indexAll(List.of(item));
+    }
+
+    public void indexAll(Collection<Item> items) {
+        if (!enabled) {
+            return;
+        }
+        // текст берётся сейчас: после фиксации сущности могут быть уже изменены или отсоединены
+        List<IndexedItem> texts = items.stream()
+                .map(item -> new IndexedItem(item.getId(), item.getName(), item.getDescription(),
+                        item.isAvailable()))
+                .collect(Collectors.toList());
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                texts.forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(long itemId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeTerms(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Возвращает id вещей, в которых каждое слово запроса является началом какого-либо слова
+     * названия или описания. Результат отсортирован по возрастанию id.
+     */
+    public List<Long> search(String text, long offset, int limit) {
+        Set<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long[] result = null;
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                long[] matches = prefixMatches(term);
+                result = result == null ? matches : LongPostings.intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.stream(result).skip(offset).limit(limit).boxed().collect(Collectors.toList());
+    }
+
+    private long[] prefixMatches(String prefix) {
+        return LongPostings.unionAll(postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+    }
+
+    private void apply(IndexedItem item) {
+        removeTerms(item.getId());
+        if (item.isAvailable()) {
+            Set<String> terms = tokenize(item.getName(), item.getDescription());
+            itemTerms.put(item.getId(), terms);
+            terms.forEach(term -> postings.merge(term, new long[]{item.getId()},
+                    (current, added) -> LongPostings.add(current, item.getId())));
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private void removeTerms(long itemId) {
+        Set<String> terms = itemTerms.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            long[] list = LongPostings.remove(postings.get(term), itemId);
+            if (list.length == 0) {
+                postings.remove(term);
+            } else {
+                postings.put(term, list);
+            }
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Приблизительный размер индекса: строки термов, массивы id, узлы TreeMap и обратный индекс по вещам.
+     */
+    private long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Map.Entry<String, long[]> entry : postings.entrySet()) {
+                bytes += 40 + 56 + 2L * entry.getKey().length() + 16 + 8L * entry.getValue().length;
+            }
+            for (Set<String> terms : itemTerms.values()) {
+                bytes += 48 + 16 + 48L * terms.size();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> tokenize(String... texts) {
+        return Arrays.stream(texts)
+                .filter(Objects::nonNull)
+                .flatMap(text -> TOKEN_SEPARATOR.splitAsStream(text.toLowerCase()))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Операции над отсортированными по возрастанию массивами id без упаковки в {@link Long}.
+ */
+final class LongPostings {
+
+    static final long[] EMPTY = new long[0];
+
+    private LongPostings() {
+    }
+
+    static long[] add(long[] postings, long id) {
+        int index = Arrays.binarySearch(postings, id);
+        if (index >= 0) {
+            return postings;
+        }
+        int position = -index - 1;
+        long[] result = new long[postings.length + 1];
+        System.arraycopy(postings, 0, result, 0, position);
+        result[position] = id;
+        System.arraycopy(postings, position, result, position + 1, postings.length - position);
+        return result;
+    }
+
+    static long[] remove(long[] postings, long id) {
+        int index = Arrays.binarySearch(postings, id);
+        if (index < 0) {
+            return postings;
+        }
+        long[] result = new long[postings.length - 1];
+        System.arraycopy(postings, 0, result, 0, index);
+        System.arraycopy(postings, index + 1, result, index, postings.length - index - 1);
+        return result;
+    }
+
+    /**
+     * Объединяет сразу все списки: одна сортировка вместо попарных слияний, которые для короткого
+     * префикса с множеством термов копировали бы растущий результат на каждом шаге.
+     */
+    static long[] unionAll(Collection<long[]> lists) {
+        if (lists.isEmpty()) {
+            return EMPTY;
+        }
+        if (lists.size() == 1) {
+            return lists.iterator().next();
+        }
+        long[] result = new long[lists.stream().mapToInt(list -> list.length).sum()];
+        int size = 0;
+        for (long[] list : lists) {
+            System.arraycopy(list, 0, result, size, list.length);
+            size += list.length;
+        }
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (distinct == 0 || result[i] != result[distinct - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return distinct == result.length ? result : Arrays.copyOf(result, distinct);
+    }
+
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i++];
+                j++;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+}
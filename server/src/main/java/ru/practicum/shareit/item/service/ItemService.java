@@ -1,22 +1,38 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface ItemService {
     Item getById(Long itemId, Long userId);
 
+    Item lock(Long itemId);
+
+    void lockAll(Collection<Long> itemIds);
+
     List<Item> getAllByUserId(Long userId, Integer from, Integer size);
 
+    List<Item> getAllByUserIdAfter(Long userId, PageCursor cursor, Integer size);
+
     List<Item> searchByText(String text, Integer from, Integer size);
 
     Item add(Long userId, ItemDto itemDto);
 
+    /**
+     * Добавляет вещи одной транзакцией. Позиции со ссылкой на несуществующий запрос
+     * не добавляются, остальные сохраняются; результат — по позиции на каждый элемент.
+     */
+    List<ItemBatchResultDto> addAll(Long userId, List<ItemDto> itemDtos);
+
     Item update(Long userId, Long itemId, ItemDto itemDto);
 
     void delete(Long userId, Long itemId);
@@ -24,4 +40,6 @@ public interface ItemService {
     Comment addComment(Long userId, Long itemId, CommentDto commentDto);
 
     Set<Item> getAllByRequestId(Long requestId);
+
+    Map<Long, Set<Item>> getAllByRequestIds(Collection<Long> requestIds);
 }
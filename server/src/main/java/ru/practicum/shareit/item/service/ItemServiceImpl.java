@@ -4,29 +4,43 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.PageCreator;
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingServiceForItem;
 import ru.practicum.shareit.error.exception.AccessErrorException;
 import ru.practicum.shareit.error.exception.BadRequestException;
 import ru.practicum.shareit.error.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.comment.CommentsRepository;
 import ru.practicum.shareit.item.dao.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.service.ItemRequestCreator;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
-import javax.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -39,8 +53,10 @@ public class ItemServiceImpl implements ItemService {
     private final BookingServiceForItem bookingService;
     private final CommentsRepository commentsRepository;
     private final ItemRequestCreator itemRequestCreator;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Override
+    @Transactional(readOnly = true)
     public Item getById(Long itemId, Long userId) {
         Item item = getItem(itemId);
         itemSetCommentsAndBookings(item);
@@ -51,38 +67,105 @@ public class ItemServiceImpl implements ItemService {
         return item;
     }
 
+    /**
+     * Блокирует строку вещи до конца текущей транзакции, чтобы бронирования одной вещи
+     * проверялись на пересечение по очереди, не мешая бронированиям других вещей.
+     * Возвращает вещь без комментариев и бронирований.
+     */
     @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Item lock(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new ItemNotFoundException("Предмета с таким id: " + itemId + " не существует"));
+    }
+
+    /**
+     * То же, что {@link #lock}, для нескольких вещей одним запросом.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockAll(Collection<Long> itemIds) {
+        itemRepository.findAllByIdForUpdate(itemIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Item> getAllByUserId(Long userId, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(PageCreator.getPage(from, size), size);
-        List<Item> items = itemRepository.findByOwner(userService.getById(userId), pageable);
-        items.forEach(this::itemSetCommentsAndBookings);
+        userService.checkExists(userId);
+        List<Item> items = itemRepository.findByOwnerId(userId, pageable);
+        itemsSetCommentsAndBookings(items);
         return items.stream().sorted(Comparator.comparing(Item::getId)).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Item> getAllByUserIdAfter(Long userId, PageCursor cursor, Integer size) {
+        PageCreator.checkSize(size);
+        userService.checkExists(userId);
+        List<Item> items = itemRepository.findByOwnerIdAndIdGreaterThan(userId,
+                cursor == null ? 0L : cursor.getId(), PageRequest.of(0, size, Sort.by("id")));
+        itemsSetCommentsAndBookings(items);
+        return items;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Item> searchByText(String text, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(PageCreator.getPage(from, size), size);
         if (text.isBlank()) {
             return new ArrayList<>();
+        } else if (itemSearchIndex.isEnabled()) {
+            return findAllByIdsInOrder(itemSearchIndex.search(text, pageable.getOffset(), size));
         } else {
-            return itemRepository.searchByText(text, pageable).stream().filter(Item::isAvailable)
-                    .collect(Collectors.toList());
+            return itemRepository.searchByText(text, pageable);
         }
     }
 
     @Override
-    @Transactional(rollbackOn = Exception.class)
+    @Transactional(rollbackFor = Exception.class)
     public Item add(Long userId, ItemDto itemDto) {
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(userService.getById(userId));
         if (itemDto.getRequestId() != null) {
             item.setItemRequest(itemRequestCreator.getById(itemDto.getRequestId()));
         }
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.index(saved);
+        return saved;
     }
 
     @Override
-    @Transactional(rollbackOn = Exception.class)
+    @Transactional(rollbackFor = Exception.class)
+    public List<ItemBatchResultDto> addAll(Long userId, List<ItemDto> itemDtos) {
+        User owner = userService.getById(userId);
+        Map<Long, ItemRequest> requests = itemRequestCreator.getAllById(itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Map<Integer, Item> items = new LinkedHashMap<>();
+        List<ItemBatchResultDto> results = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                results.add(new ItemBatchResultDto(i, null, "Запроса вещи с таким id: " + itemDto.getRequestId() +
+                        " не существует"));
+                continue;
+            }
+            Item item = ItemMapper.toItem(itemDto);
+            item.setOwner(owner);
+            item.setItemRequest(itemDto.getRequestId() != null ? requests.get(itemDto.getRequestId()) : null);
+            items.put(i, item);
+        }
+        itemRepository.saveAll(items.values());
+        itemSearchIndex.indexAll(items.values());
+        items.forEach((index, item) -> results.add(new ItemBatchResultDto(index, ItemMapper.toItemDto(item), null)));
+        results.sort(Comparator.comparingInt(ItemBatchResultDto::getIndex));
+        return results;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
     public Item update(Long userId, Long itemId, ItemDto itemDto) {
         Item item = getItem(itemId);
         checkOwner(userId, item);
@@ -98,17 +181,21 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getRequestId() != null) {
             item.setItemRequest(itemRequestCreator.getById(itemDto.getRequestId()));
         }
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.index(saved);
+        return saved;
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void delete(Long userId, Long itemId) {
         checkOwner(userId, getItem(itemId));
         itemRepository.deleteById(itemId);
+        itemSearchIndex.remove(itemId);
     }
 
     @Override
-    @Transactional(rollbackOn = Exception.class)
+    @Transactional(rollbackFor = Exception.class)
     public Comment addComment(Long userId, Long itemId, CommentDto commentDto) {
         if (bookingService.checkBooking(userId, itemId, BookingStatus.APPROVED)) {
             return  commentsRepository.save(CommentMapper.toComment(commentDto, userService.getById(userId),
@@ -123,6 +210,21 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findAllByItemRequest_Id(requestId);
     }
 
+    @Override
+    public Map<Long, Set<Item>> getAllByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return itemRepository.findAllByItemRequest_IdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId(), Collectors.toSet()));
+    }
+
+    private List<Item> findAllByIdsInOrder(List<Long> itemIds) {
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream().map(items::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     private Item getItem(Long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Предмета с таким id: " + itemId + " не существует"));
@@ -135,8 +237,24 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private void itemSetCommentsAndBookings(Item item) {
-        item.setComments(commentsRepository.findAllByItem_Id(item.getId()).orElse(new ArrayList<>()));
+        item.setComments(commentsRepository.findAllDtoByItemIds(List.of(item.getId())));
         item.setLastBooking(bookingService.getLastBooking(item.getId()).orElse(null));
         item.setNextBooking(bookingService.getNextBooking(item.getId()).orElse(null));
     }
+
+    private void itemsSetCommentsAndBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, List<CommentDto>> comments = commentsRepository.findAllDtoByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(CommentDto::getItem));
+        Map<Long, Booking> lastBookings = bookingService.getLastBookings(itemIds);
+        Map<Long, Booking> nextBookings = bookingService.getNextBookings(itemIds);
+        items.forEach(item -> {
+            item.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+            item.setLastBooking(lastBookings.get(item.getId()));
+            item.setNextBooking(nextBookings.get(item.getId()));
+        });
+    }
 }
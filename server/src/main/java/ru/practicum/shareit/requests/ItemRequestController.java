@@ -4,11 +4,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.mapper.ItemRequestMapper;
+import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.service.ItemRequestService;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -46,11 +49,23 @@ public class ItemRequestController {
                                                                               defaultValue = "0") Integer from,
                                                                       @RequestParam(value = "size", required = false,
                                                                               defaultValue = "20") Integer size,
-                                                                      HttpServletRequest httpServletRequest) {
-        log.info("Получен запрос к эндпоинту: {} {}, значение X-Sharer-User-Id {}, параметры запроса from {}, size {}",
-                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, from, size);
-        return itemRequestService.getAllItemRequestsCreatedAnotherUsers(userId, from, size)
-                .stream().map(ItemRequestMapper::toItemRequestDto).collect(Collectors.toList());
+                                                                      @RequestParam(value = "cursor",
+                                                                              required = false) String cursor,
+                                                                      HttpServletRequest httpServletRequest,
+                                                                      HttpServletResponse httpServletResponse) {
+        log.info("Получен запрос к эндпоинту: {} {}, значение X-Sharer-User-Id {}, параметры запроса from {}," +
+                        " size {}, cursor {}",
+                httpServletRequest.getMethod(), httpServletRequest.getRequestURI(), userId, from, size, cursor);
+        List<ItemRequest> requests = cursor == null
+                ? itemRequestService.getAllItemRequestsCreatedAnotherUsers(userId, from, size)
+                : itemRequestService.getAllItemRequestsCreatedAnotherUsersAfter(userId, PageCursor.decode(cursor),
+                        size);
+        if (cursor != null && requests.size() == size) {
+            ItemRequest last = requests.get(requests.size() - 1);
+            httpServletResponse.setHeader(PageCursor.NEXT_CURSOR_HEADER,
+                    PageCursor.of(last.getCreatedTime(), last.getId()).encode());
+        }
+        return requests.stream().map(ItemRequestMapper::toItemRequestDto).collect(Collectors.toList());
     }
 
     @GetMapping("{requestId}")
@@ -2,15 +2,23 @@ package ru.practicum.shareit.requests.dao.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("select r from ItemRequest r where r.requestor.id = ?1")
     Optional<List<ItemRequest>> findAllByRequestor_Id(long requestorId);
 
     Optional<List<ItemRequest>> findAllByRequestor_IdIsNot(long requestorId, Pageable pageable);
 
+    @Query("select r from ItemRequest r where r.requestor.id <> ?1 " +
+            "and (r.createdTime < ?2 or (r.createdTime = ?2 and r.id < ?3))")
+    List<ItemRequest> findAllByRequestorIdIsNotAfter(long requestorId, LocalDateTime createdTime, long id,
+                                                     Pageable pageable);
+
 }
@@ -6,6 +6,11 @@ import ru.practicum.shareit.error.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.requests.dao.repository.ItemRequestRepository;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Component
 @AllArgsConstructor
 public class ItemRequestCreator {
@@ -16,4 +21,12 @@ public class ItemRequestCreator {
         return itemRequestRepository.findById(requestId).orElseThrow(() -> new ItemRequestNotFoundException("Запроса " +
                 "вещи с таким id: " + requestId + " не существует"));
     }
+
+    public Map<Long, ItemRequest> getAllById(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.requests.service;
 
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
@@ -12,5 +13,7 @@ public interface ItemRequestService {
 
     List<ItemRequest> getAllItemRequestsCreatedAnotherUsers(long userId, Integer from, Integer size);
 
+    List<ItemRequest> getAllItemRequestsCreatedAnotherUsersAfter(long userId, PageCursor cursor, Integer size);
+
     ItemRequest getItemRequestById(long requestId, long userId);
 }
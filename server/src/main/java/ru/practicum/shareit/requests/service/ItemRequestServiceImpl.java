@@ -5,8 +5,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.PageCreator;
+import ru.practicum.shareit.PageCursor;
+import ru.practicum.shareit.error.exception.ConflictException;
 import ru.practicum.shareit.error.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.requests.dao.repository.ItemRequestRepository;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
@@ -14,29 +18,34 @@ import ru.practicum.shareit.requests.mapper.ItemRequestMapper;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.user.service.UserService;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    private static final Sort REQUEST_SORT = Sort.by(Sort.Direction.DESC, "createdTime")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final ItemRequestRepository itemRequestRepository;
     private final UserService userService;
     private final ItemService itemService;
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequest> getAllItemRequestsByUserId(long userId) {
-        userService.getById(userId);
-        return itemRequestRepository.findAllByRequestor_Id(userId)
-                .orElse(new ArrayList<>()).stream().map(this::setRequestItems).collect(Collectors.toList());
+        userService.checkExists(userId);
+        return setRequestsItems(itemRequestRepository.findAllByRequestor_Id(userId).orElse(new ArrayList<>()));
     }
 
     @Override
-    @Transactional(rollbackOn = Exception.class)
+    @Transactional(rollbackFor = Exception.class)
     public ItemRequest add(long userId, ItemRequestDto itemRequestDto) {
         itemRequestDto.setCreated(LocalDateTime.now().withNano(0));
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto);
@@ -45,17 +54,35 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequest> getAllItemRequestsCreatedAnotherUsers(long userId, Integer from, Integer size) {
-        userService.getById(userId);
-        Pageable pageable = PageRequest.of(PageCreator.getPage(from, size), size,
-                Sort.by(Sort.Direction.DESC, "createdTime"));
-        return itemRequestRepository.findAllByRequestor_IdIsNot(userId, pageable)
-                .orElse(new ArrayList<>()).stream().map(this::setRequestItems).collect(Collectors.toList());
+        userService.checkExists(userId);
+        Pageable pageable = PageRequest.of(PageCreator.getPage(from, size), size, REQUEST_SORT);
+        return setRequestsItems(itemRequestRepository.findAllByRequestor_IdIsNot(userId, pageable)
+                .orElse(new ArrayList<>()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequest> getAllItemRequestsCreatedAnotherUsersAfter(long userId, PageCursor cursor,
+                                                                        Integer size) {
+        PageCreator.checkSize(size);
+        userService.checkExists(userId);
+        if (cursor == null) {
+            return setRequestsItems(itemRequestRepository.findAllByRequestor_IdIsNot(userId,
+                    PageRequest.of(0, size, REQUEST_SORT)).orElse(new ArrayList<>()));
+        }
+        if (cursor.getTime() == null) {
+            throw new ConflictException("Курсор не содержит времени создания запроса");
+        }
+        return setRequestsItems(itemRequestRepository.findAllByRequestorIdIsNotAfter(userId, cursor.getTime(),
+                cursor.getId(), PageRequest.of(0, size, REQUEST_SORT)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequest getItemRequestById(long requestId, long userId) {
-        userService.getById(userId);
+        userService.checkExists(userId);
         return setRequestItems(itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new ItemRequestNotFoundException("Запроса " +
                 "вещи с таким id: " + requestId + " не существует")));
@@ -65,4 +92,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         request.setItems(itemService.getAllByRequestId(request.getId()));
         return request;
     }
+
+    private List<ItemRequest> setRequestsItems(List<ItemRequest> requests) {
+        Map<Long, Set<Item>> items = itemService.getAllByRequestIds(requests.stream()
+                .map(ItemRequest::getId).collect(Collectors.toList()));
+        requests.forEach(request -> request.setItems(items.getOrDefault(request.getId(), new HashSet<>())));
+        return requests;
+    }
 }
@@ -10,6 +10,11 @@ public interface UserService {
 
     User getById(long userId);
 
+    /**
+     * Проверяет, что пользователь существует, не загружая его.
+     */
+    void checkExists(long userId);
+
     User add(UserDto userDto);
 
     User update(long userId, UserDto userDto);
@@ -3,13 +3,13 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.error.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.dao.repository.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
-import javax.transaction.Transactional;
 import java.util.List;
 
 @Service
@@ -20,23 +20,33 @@ public class UserServiceImpl implements UserService {
     private final UserRepository repository;
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAll() {
         return repository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getById(long userId) {
-        return repository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id: " + userId + " не существует"));
+        return repository.findById(userId).orElseThrow(() -> notFound(userId));
     }
 
-    @Transactional
     @Override
+    @Transactional(readOnly = true)
+    public void checkExists(long userId) {
+        if (!repository.existsById(userId)) {
+            throw notFound(userId);
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
     public User add(UserDto userDto) {
-        return repository.save(UserMapper.toUser(userDto));
+        return repository.saveAndFlush(UserMapper.toUser(userDto));
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public User update(long userId, UserDto userDto) {
         User user = getById(userId);
         userDto.setId(userId);
@@ -51,7 +61,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void delete(long userId) {
         repository.deleteById(userId);
     }
+
+    private static UserNotFoundException notFound(long userId) {
+        return new UserNotFoundException("Пользователя с таким id: " + userId + " не существует");
+    }
 }
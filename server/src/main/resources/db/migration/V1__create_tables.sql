@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users, request, items, booking, comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users
 (
     user_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -44,4 +42,4 @@ CREATE TABLE IF NOT EXISTS comments
   item_id BIGINT REFERENCES items(item_id),
   author_id BIGINT REFERENCES users(user_id),
   created_date TIMESTAMP WITHOUT TIME ZONE
-);
\ No newline at end of file
+);
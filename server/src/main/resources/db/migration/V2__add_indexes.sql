@@ -0,0 +1,17 @@
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_booking_item_start ON booking (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_booking_item_end ON booking (item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_booking_booker_item_status_end ON booking (booker_id, item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, item_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_request_requestor_created ON request (requestor_id, created_time DESC);
+
+CREATE INDEX IF NOT EXISTS idx_request_created ON request (created_time DESC, request_id DESC);
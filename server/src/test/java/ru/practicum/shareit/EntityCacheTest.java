@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import ru.practicum.shareit.error.exception.UserNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EntityCacheTest {
+
+    private final UserService userService;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void getByIdShouldBeServedFromCache() {
+        User user = userService.add(UserDto.builder().name("Cached").email("cached@yandex.ru").build());
+        double hits = cacheHits();
+
+        userService.getById(user.getId());
+        userService.getById(user.getId());
+
+        assertTrue(cacheHits() > hits);
+    }
+
+    @Test
+    void updateAndDeleteShouldNotLeaveStaleEntries() {
+        User user = userService.add(UserDto.builder().name("Before").email("stale@yandex.ru").build());
+        userService.getById(user.getId());
+
+        userService.update(user.getId(), UserDto.builder().name("After").build());
+        assertEquals("After", userService.getById(user.getId()).getName());
+
+        userService.delete(user.getId());
+        assertThrows(UserNotFoundException.class, () -> userService.getById(user.getId()));
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", User.class.getName())
+                .tag("result", "hit").functionCounter().count();
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
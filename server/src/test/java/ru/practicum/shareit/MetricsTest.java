@@ -0,0 +1,45 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@AutoConfigureMetrics
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class MetricsTest {
+
+    private final MockMvc mockMvc;
+    private final UserService userService;
+
+    @Test
+    void prometheusShouldExposeRequestHistogramsTaggedByState() throws Exception {
+        User user = userService.add(UserDto.builder().name("Metrics").email("metrics@yandex.ru").build());
+        mockMvc.perform(get("/bookings/owner").param("state", "PAST").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{application=\"shareit-server\""),
+                        containsString("state=\"PAST\",status=\"200\",uri=\"/bookings/owner\""),
+                        containsString("jvm_gc_pause_seconds"),
+                        containsString("jvm_threads_live_threads"))));
+    }
+}
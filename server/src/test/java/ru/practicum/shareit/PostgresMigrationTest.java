@@ -0,0 +1,179 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Миграции db/vendor/postgresql на настоящем PostgreSQL той же версии, что в docker-compose.
+ * Каждый тест получает свою базу; server запускается поверх неё так же, как в docker-compose.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostgresMigrationTest {
+
+    private EmbeddedPostgres postgres;
+
+    @BeforeAll
+    void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    // Postman-тесты рассчитывают на id с единицы в пустой базе
+    @Test
+    void freshSchemaShouldHandOutIdsFromOne() throws Exception {
+        String url = createDatabase("fresh");
+        try (ConfigurableApplicationContext server = startServer(url)) {
+            UserService userService = server.getBean(UserService.class);
+            User owner = userService.add(UserDto.builder().name("Owner").email("owner@yandex.ru").build());
+            User booker = userService.add(UserDto.builder().name("Booker").email("booker@yandex.ru").build());
+            Item item = server.getBean(ItemService.class).add(owner.getId(), ItemDto.builder()
+                    .name("Item").description("Item description").available(true).build());
+            long bookingId = server.getBean(BookingService.class).add(booker.getId(), BookingInputDto.builder()
+                    .itemId(item.getId())
+                    .startDate(LocalDateTime.now().plusDays(1))
+                    .endDate(LocalDateTime.now().plusDays(2))
+                    .build()).getId();
+
+            assertEquals(1, owner.getId());
+            assertEquals(2, booker.getId());
+            assertEquals(1, item.getId());
+            assertEquals(1, bookingId);
+        }
+    }
+
+    // Поиск на PostgreSQL, как и like на H2, находит текст в середине слова
+    @Test
+    void searchShouldMatchSubstringsAndRankNameMatchesFirst() {
+        String url = createDatabase("search");
+        try (ConfigurableApplicationContext server = startServer(url)) {
+            User owner = server.getBean(UserService.class)
+                    .add(UserDto.builder().name("Owner").email("owner@yandex.ru").build());
+            ItemService itemService = server.getBean(ItemService.class);
+            Item screwdriver = itemService.add(owner.getId(), ItemDto.builder()
+                    .name("Отвёртка").description("Аккумуляторная, к ней подходит дрель").available(true).build());
+            Item drill = itemService.add(owner.getId(), ItemDto.builder()
+                    .name("Дрель ударная").description("Мощная").available(true).build());
+            itemService.add(owner.getId(), ItemDto.builder()
+                    .name("Дрель").description("Сломана").available(false).build());
+
+            assertEquals(List.of(drill.getId(), screwdriver.getId()), itemService.searchByText("РЕЛЬ", 0, 10)
+                    .stream().map(Item::getId).collect(Collectors.toList()));
+            assertEquals(List.of(screwdriver.getId()), itemService.searchByText("кумулятор", 0, 10)
+                    .stream().map(Item::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void existingIdsShouldBeContinuedWithoutGap() {
+        String url = createDatabase("existing");
+        migrate(url, "4");
+        JdbcTemplate jdbcTemplate = jdbcTemplate(url);
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                    id, "User" + id, "user" + id + "@yandex.ru");
+        }
+
+        try (ConfigurableApplicationContext server = startServer(url)) {
+            User user = server.getBean(UserService.class)
+                    .add(UserDto.builder().name("New").email("new@yandex.ru").build());
+
+            assertEquals(4, user.getId());
+        }
+    }
+
+    // Пересекающиеся подтверждённые бронирования миграция не меняет, а перечисляет и останавливается
+    @Test
+    void overlappingApprovedBookingsShouldStopMigrationUntilResolved() {
+        String url = createDatabase("approved_overlaps");
+        migrate(url, "3");
+        JdbcTemplate jdbcTemplate = jdbcTemplate(url);
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (1, 'Owner', 'owner@yandex.ru')");
+        jdbcTemplate.update("INSERT INTO items (item_id, name, description, is_available, owner_id) " +
+                "VALUES (1, 'Item', 'Item description', true, 1)");
+        LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+        insertBooking(jdbcTemplate, 1, day, day.plusDays(2), "APPROVED");
+        insertBooking(jdbcTemplate, 2, day.plusDays(1), day.plusDays(3), "APPROVED");
+        insertBooking(jdbcTemplate, 3, day.plusHours(60), day.plusDays(4), "APPROVED");
+        insertBooking(jdbcTemplate, 4, day, day.plusDays(2), "WAITING");
+
+        FlywayException exception = assertThrows(FlywayException.class, () -> migrate(url, "4"));
+
+        assertTrue(exception.getMessage().contains("Пересекаются подтверждённые бронирования: 1 и 2, 2 и 3"),
+                exception.getMessage());
+        assertEquals(List.of("APPROVED", "APPROVED", "APPROVED", "WAITING"), jdbcTemplate.queryForList(
+                "SELECT status FROM booking ORDER BY booking_id", String.class));
+
+        jdbcTemplate.update("UPDATE booking SET status = 'REJECTED' WHERE booking_id = 2");
+        migrate(url, "4");
+
+        insertBooking(jdbcTemplate, 5, day.plusDays(1), day.plusDays(2), "WAITING");
+        assertThrows(DataIntegrityViolationException.class,
+                () -> insertBooking(jdbcTemplate, 6, day.plusDays(1), day.plusDays(2), "APPROVED"));
+    }
+
+    private void insertBooking(JdbcTemplate jdbcTemplate, long id, LocalDateTime start, LocalDateTime end,
+                               String status) {
+        jdbcTemplate.update("INSERT INTO booking (booking_id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, 1, 1, ?)", id, Timestamp.valueOf(start), Timestamp.valueOf(end), status);
+    }
+
+    private String createDatabase(String name) {
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        return postgres.getJdbcUrl("postgres", name);
+    }
+
+    private void migrate(String url, String target) {
+        Flyway.configure()
+                .dataSource(url, "postgres", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private JdbcTemplate jdbcTemplate(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "postgres", ""));
+    }
+
+    private ConfigurableApplicationContext startServer(String url) {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=");
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.StateStatus;
+import ru.practicum.shareit.booking.dao.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentsRepository;
+import ru.practicum.shareit.item.dao.repository.ItemRepository;
+import ru.practicum.shareit.requests.dao.repository.ItemRequestRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.dao.specification.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.dao.specification.BookingSpecifications.byItemOwner;
+import static ru.practicum.shareit.booking.dao.specification.BookingSpecifications.byState;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.RecordingStatementInspector", "shareit.entity-cache.enabled=false"})
+@AutoConfigureTestDatabase
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryPlanTest {
+
+    private static final int USERS = 50;
+    private static final int ITEMS = 200;
+    private static final int BOOKINGS = 2000;
+
+    private static final Sort BOOKING_SORT = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final Sort REQUEST_SORT = Sort.by(Sort.Direction.DESC, "createdTime")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final Pattern PLAN_INDEX = Pattern.compile("/\\* PUBLIC\\.(\\w+)[: ]");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentsRepository commentsRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "User" + id, "user" + id + "@yandex.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            requests.add(new Object[]{id, "Request" + id, id, Timestamp.valueOf(now.minusHours(id))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO request (request_id, description, requestor_id, created_time) " +
+                "VALUES (?, ?, ?, ?)", requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new Object[]{id, "Item" + id, "Description" + id, true, id % USERS + 1,
+                    id % 4 == 0 ? id % USERS + 1 : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (item_id, name, description, is_available, owner_id, " +
+                "request_id) VALUES (?, ?, ?, ?, ?, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (long id = 1; id <= BOOKINGS; id++) {
+            LocalDateTime start = now.plusHours(id - BOOKINGS / 2);
+            bookings.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)),
+                    id % ITEMS + 1, id % USERS + 1, id % 3 == 0 ? "WAITING" : "APPROVED"});
+            comments.add(new Object[]{id, "Comment" + id, id % ITEMS + 1, id % USERS + 1, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO booking (booking_id, start_date, end_date, item_id, booker_id, " +
+                "status) VALUES (?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (comment_id, text, item_id, author_id, created_date) " +
+                "VALUES (?, ?, ?, ?, ?)", comments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Запросы берутся такими, какими их генерирует Hibernate, и разбираются EXPLAIN без подстановки параметров.
+    // Индекс задаётся таблицей и столбцами: H2 сам индексирует внешние ключи под сгенерированными именами,
+    // и там, где такой индекс не хуже составного из миграции, выбирает его.
+    Stream<Arguments> hotQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        return Stream.of(
+                Arguments.of("bookings by booker", (Runnable) () -> bookingRepository.findPage(
+                        byBooker(7).and(byState(StateStatus.ALL, now)), PageRequest.of(0, 10, BOOKING_SORT)),
+                        "BOOKING(BOOKER_ID)"),
+                Arguments.of("bookings by item owner", (Runnable) () -> bookingRepository.findPage(
+                        byItemOwner(7).and(byState(StateStatus.ALL, now)), PageRequest.of(0, 10, BOOKING_SORT)),
+                        "ITEMS(OWNER_ID)"),
+                Arguments.of("last bookings of items", (Runnable) () ->
+                        bookingRepository.findLastBookingsByItemIds(List.of(7L, 8L), now),
+                        "BOOKING(ITEM_ID, END_DATE)"),
+                Arguments.of("next bookings of items", (Runnable) () ->
+                        bookingRepository.findNextBookingsByItemIds(List.of(7L, 8L), now),
+                        "BOOKING(ITEM_ID, START_DATE)"),
+                Arguments.of("overlapping bookings", (Runnable) () ->
+                        bookingRepository.existsOverlapping(7, 0, List.of(BookingStatus.APPROVED), now,
+                                now.plusDays(1)),
+                        "BOOKING(ITEM_ID, START_DATE)"),
+                Arguments.of("finished booking of item by booker", (Runnable) () ->
+                        bookingRepository.existsBookingByBooker_IdAndItem_IdAndStatusEqualsAndEndIsBefore(7, 57,
+                                BookingStatus.APPROVED, now),
+                        "BOOKING(BOOKER_ID, ITEM_ID, STATUS, END_DATE)"),
+                Arguments.of("comments of items", (Runnable) () ->
+                        commentsRepository.findAllDtoByItemIds(List.of(7L, 8L)), "COMMENTS(ITEM_ID)"),
+                Arguments.of("items of owner", (Runnable) () ->
+                        itemRepository.findByOwnerIdAndIdGreaterThan(7, 0L, PageRequest.of(0, 10, Sort.by("id"))),
+                        "ITEMS(OWNER_ID, ITEM_ID)"),
+                Arguments.of("items answering request", (Runnable) () ->
+                        itemRepository.findAllByItemRequest_Id(4), "ITEMS(REQUEST_ID)"),
+                Arguments.of("items answering requests", (Runnable) () ->
+                        itemRepository.findAllByItemRequest_IdIn(List.of(4L, 8L, 12L)), "ITEMS(REQUEST_ID)"),
+                Arguments.of("requests of requestor", (Runnable) () ->
+                        itemRequestRepository.findAllByRequestor_Id(7), "REQUEST(REQUESTOR_ID)"),
+                Arguments.of("requests of others after cursor", (Runnable) () ->
+                        itemRequestRepository.findAllByRequestorIdIsNotAfter(7, now, 100,
+                                PageRequest.of(0, 10, REQUEST_SORT)),
+                        "REQUEST(CREATED_TIME, REQUEST_ID)")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryShouldUseIndex(String name, Runnable query, String expectedIndex) {
+        RecordingStatementInspector.clear();
+        query.run();
+        List<String> statements = RecordingStatementInspector.statements();
+        assertEquals(1, statements.size(), statements::toString);
+
+        String plan = explain(statements.get(0));
+
+        assertFalse(plan.contains(".tableScan"), name + " использует полный просмотр таблицы:\n" + plan);
+        assertTrue(usedIndexes(plan).contains(expectedIndex),
+                name + " не использует индекс " + expectedIndex + ":\n" + plan);
+    }
+
+    @Test
+    void migrationShouldCreateIndexesForHotQueries() {
+        List<String> indexes = jdbcTemplate.queryForList("SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE TABLE_SCHEMA = 'PUBLIC'", String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "idx_booking_booker_start",
+                "idx_booking_item_start",
+                "idx_booking_item_end",
+                "idx_booking_booker_item_status_end",
+                "idx_items_owner",
+                "idx_items_request",
+                "idx_comments_item",
+                "idx_request_requestor_created",
+                "idx_request_created")), indexes::toString);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql), resultSet -> {
+            resultSet.next();
+            return resultSet.getString(1);
+        });
+    }
+
+    // Индексы из плана в виде "ТАБЛИЦА(СТОЛБЕЦ, ...)"
+    private Set<String> usedIndexes(String plan) {
+        Set<String> indexes = new HashSet<>();
+        Matcher matcher = PLAN_INDEX.matcher(plan);
+        while (matcher.find()) {
+            List<Map<String, Object>> columns = jdbcTemplate.queryForList("SELECT TABLE_NAME, COLUMN_NAME " +
+                    "FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' AND INDEX_NAME = ? " +
+                    "ORDER BY ORDINAL_POSITION", matcher.group(1));
+            if (!columns.isEmpty()) {
+                indexes.add(columns.get(0).get("TABLE_NAME") + columns.stream()
+                        .map(column -> (String) column.get("COLUMN_NAME"))
+                        .collect(Collectors.joining(", ", "(", ")")));
+            }
+        }
+        return indexes;
+    }
+}
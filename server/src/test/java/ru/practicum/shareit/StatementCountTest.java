@@ -0,0 +1,200 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dao.repository.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.entity-cache.enabled=false"})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class StatementCountTest {
+
+    private static final long OWNER_ID = 1;
+    private static final long BOOKER_ID = 2;
+    private static final int ITEMS = 5;
+
+    private final MockMvc mockMvc;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?), (?, ?, ?)",
+                OWNER_ID, "Owner", "statistics.owner@yandex.ru", BOOKER_ID, "Booker", "statistics.booker@yandex.ru");
+        jdbcTemplate.update("INSERT INTO request (request_id, description, requestor_id, created_time) " +
+                "VALUES (1, 'Request', ?, ?)", OWNER_ID, Timestamp.valueOf(now.minusDays(10)));
+
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new Object[]{id, "Item" + id, "Description" + id, true, OWNER_ID, 1L});
+            bookings.add(new Object[]{2 * id - 1, Timestamp.valueOf(now.minusDays(3)),
+                    Timestamp.valueOf(now.minusDays(2)), id, BOOKER_ID, "APPROVED"});
+            bookings.add(new Object[]{2 * id, Timestamp.valueOf(now.plusDays(2)),
+                    Timestamp.valueOf(now.plusDays(3)), id, BOOKER_ID, "WAITING"});
+            comments.add(new Object[]{id, "Comment" + id, id, BOOKER_ID, Timestamp.valueOf(now.minusDays(1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (item_id, name, description, is_available, owner_id, " +
+                "request_id) VALUES (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO booking (booking_id, start_date, end_date, item_id, booker_id, " +
+                "status) VALUES (?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (comment_id, text, item_id, author_id, created_date) " +
+                "VALUES (?, ?, ?, ?, ?)", comments);
+        for (String sequence : List.of("users_seq", "request_seq", "items_seq", "booking_seq", "comments_seq")) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH 1000");
+        }
+    }
+
+    // Число запросов не должно зависеть от количества вещей и бронирований на странице
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void endpointShouldExecuteFixedNumberOfStatements(String url, long userId, long expectedStatements)
+            throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(url).header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+    }
+
+    // Создание бронирования: пользователь, вещь под блокировкой, проверка пересечений и вставка.
+    // Первое бронирование резервирует блок id из последовательности, второе обходится без неё.
+    @Test
+    void bookingCreationShouldExecuteFixedNumberOfStatements() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        addBooking(start);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        addBooking(start.plusDays(2));
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    // Вставки уходят пачками по hibernate.jdbc.batch_size, а не по одной
+    @Test
+    void bulkInsertShouldBeBatched() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(User.builder().name("Bulk" + i).email("bulk" + i + "@yandex.ru").build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+
+        assertEquals(100, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "Подготовлено запросов: " + statistics.getPrepareStatementCount());
+    }
+
+    // Пакет вещей: владелец, все запросы одним обращением и вставка пачкой
+    @Test
+    void itemBatchShouldExecuteFixedNumberOfStatements() throws Exception {
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            items.append(i == 0 ? "" : ",").append("{\"name\": \"Batch").append(i)
+                    .append("\", \"description\": \"Batch\", \"available\": true, \"requestId\": 1}");
+        }
+        mockMvc.perform(post("/items/batch").header("X-Sharer-User-Id", OWNER_ID)
+                        .contentType(MediaType.APPLICATION_JSON).content(items.append("]").toString()))
+                .andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/items/batch").header("X-Sharer-User-Id", OWNER_ID)
+                        .contentType(MediaType.APPLICATION_JSON).content(items.toString()))
+                .andExpect(status().isOk());
+
+        assertEquals(20, statistics.getEntityInsertCount());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    // Подтверждение: бронирование, вещь под блокировкой, проверка пересечений и условное обновление статуса
+    @Test
+    void bookingConfirmationShouldExecuteFixedNumberOfStatements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(patch("/bookings/10").header("X-Sharer-User-Id", OWNER_ID)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    // Пакетное отклонение: владелец, статусы одним запросом и одно обновление на весь список
+    @Test
+    void bookingBatchConfirmationShouldExecuteFixedNumberOfStatements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(patch("/bookings/batch").header("X-Sharer-User-Id", OWNER_ID)
+                        .param("approved", "false")
+                        .contentType(MediaType.APPLICATION_JSON).content("[2, 4, 6, 8]"))
+                .andExpect(status().isOk());
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private void addBooking(LocalDateTime start) throws Exception {
+        mockMvc.perform(post("/bookings").header("X-Sharer-User-Id", BOOKER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\": 1, \"start\": \"" + start + "\", " +
+                                "\"end\": \"" + start.plusDays(1) + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private Stream<Arguments> endpoints() {
+        return Stream.of(
+                Arguments.of("/bookings/1", BOOKER_ID, 1),
+                Arguments.of("/bookings?state=ALL", BOOKER_ID, 2),
+                Arguments.of("/bookings/owner?state=ALL", OWNER_ID, 2),
+                Arguments.of("/items/1", OWNER_ID, 4),
+                Arguments.of("/items", OWNER_ID, 5),
+                Arguments.of("/items/search?text=item", BOOKER_ID, 1),
+                Arguments.of("/requests", OWNER_ID, 3),
+                Arguments.of("/requests/all", BOOKER_ID, 3),
+                Arguments.of("/requests/1", BOOKER_ID, 3)
+        );
+    }
+}
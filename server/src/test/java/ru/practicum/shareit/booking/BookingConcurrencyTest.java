@@ -0,0 +1,175 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.exception.BadRequestException;
+import ru.practicum.shareit.error.exception.ConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+
+    // Ожидающие бронирования могут пересекаться, одобрить из них можно только одно
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsShouldLeaveOnlyOne() throws Exception {
+        User owner = userService.add(UserDto.builder().name("Owner").email("concurrent.owner@yandex.ru").build());
+        Item item = itemService.add(owner.getId(), itemDto());
+        List<Booking> bookings = new ArrayList<>();
+        for (User booker : bookers("concurrent.booker", THREADS)) {
+            bookings.add(bookingService.add(booker.getId(), bookingDto(item.getId(),
+                    start.plusHours(bookings.size()), start.plusDays(1))));
+        }
+
+        List<Future<Booking>> results = runConcurrently(bookings.stream()
+                .map(booking -> (Callable<Booking>) () ->
+                        bookingService.bookingConfirmation(owner.getId(), booking.getId(), true))
+                .collect(Collectors.toList()));
+
+        int approved = 0;
+        int conflicts = 0;
+        for (Future<Booking> result : results) {
+            try {
+                result.get();
+                approved++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ConflictException, e.getCause().toString());
+                conflicts++;
+            }
+        }
+        assertEquals(1, approved);
+        assertEquals(THREADS - 1, conflicts);
+        assertEquals(1, bookingService.getAllBookingByOwner(owner.getId(), StateStatus.ALL, 0, THREADS).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED).count());
+    }
+
+    @Test
+    void concurrentBookingsOfDifferentItemsShouldAllSucceed() throws Exception {
+        User owner = userService.add(UserDto.builder().name("Owner").email("parallel.owner@yandex.ru").build());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            items.add(itemService.add(owner.getId(), itemDto()));
+        }
+        List<User> bookers = bookers("parallel.booker", THREADS);
+
+        List<Future<Booking>> results = runConcurrently(bookers.stream()
+                .map(booker -> (Callable<Booking>) () -> bookingService.add(booker.getId(),
+                        bookingDto(items.get(bookers.indexOf(booker)).getId(), start, start.plusDays(1))))
+                .collect(Collectors.toList()));
+
+        for (Future<Booking> result : results) {
+            result.get();
+        }
+        assertEquals(items.stream().map(Item::getId).collect(Collectors.toSet()),
+                bookingService.getAllBookingByOwner(owner.getId(), StateStatus.ALL, 0, THREADS).stream()
+                        .map(BookingView::getItemId).collect(Collectors.toSet()));
+    }
+
+    // Отклонённое бронирование можно одобрить, одобренное — уже нельзя изменить:
+    // одобрение проходит не больше одного раза, и после него статус остаётся APPROVED
+    @Test
+    void concurrentConfirmationsShouldNotLoseApproval() throws Exception {
+        User owner = userService.add(UserDto.builder().name("Owner").email("confirm.owner@yandex.ru").build());
+        Item item = itemService.add(owner.getId(), itemDto());
+        User booker = bookers("confirm.booker", 1).get(0);
+        Booking booking = bookingService.add(booker.getId(), bookingDto(item.getId(), start, start.plusDays(1)));
+
+        List<Callable<Booking>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            calls.add(() -> bookingService.bookingConfirmation(owner.getId(), booking.getId(), approved));
+        }
+        List<Future<Booking>> results = runConcurrently(calls);
+
+        int approvals = 0;
+        for (Future<Booking> result : results) {
+            try {
+                if (result.get().getStatus() == BookingStatus.APPROVED) {
+                    approvals++;
+                }
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ConflictException || e.getCause() instanceof BadRequestException,
+                        e.getCause().toString());
+            }
+        }
+        assertTrue(approvals <= 1);
+        assertEquals(approvals == 1 ? BookingStatus.APPROVED : BookingStatus.REJECTED,
+                bookingService.getById(owner.getId(), booking.getId()).getStatus());
+    }
+
+    private List<Future<Booking>> runConcurrently(List<Callable<Booking>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.size());
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Future<Booking>> results = new ArrayList<>();
+            for (Callable<Booking> call : calls) {
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    return call.call();
+                }));
+            }
+            ready.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<User> bookers(String prefix, int count) {
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bookers.add(userService.add(UserDto.builder().name("Booker" + i).email(prefix + i + "@yandex.ru")
+                    .build()));
+        }
+        return bookers;
+    }
+
+    private ItemDto itemDto() {
+        return ItemDto.builder()
+                .name("Item")
+                .description("Item description")
+                .available(true)
+                .build();
+    }
+
+    private BookingInputDto bookingDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingInputDto.builder()
+                .itemId(itemId)
+                .startDate(start)
+                .endDate(end)
+                .build();
+    }
+}
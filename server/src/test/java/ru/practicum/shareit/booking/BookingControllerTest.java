@@ -8,11 +8,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.PageCursor;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.error.exception.AccessErrorException;
 import ru.practicum.shareit.error.exception.BookingNotFoundException;
+import ru.practicum.shareit.error.exception.ConflictException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
@@ -25,6 +29,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -137,6 +142,17 @@ public class BookingControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void bookingConfirmationShould409WhenStatusChangedConcurrently() throws Exception {
+        when(bookingService.bookingConfirmation(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new ConflictException("Статус бронирования изменён другим запросом"));
+
+        mockMvc.perform(patch(baseUrl + "/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", ownerUser.getId())
+                        .param("approved", String.valueOf(true)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void bookingConfirmationShouldSetStatusToApproved() throws Exception {
 
@@ -162,6 +178,23 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is("REJECTED")));
     }
 
+    @Test
+    void bookingConfirmationAllShouldReturnResultPerBooking() throws Exception {
+        when(bookingService.bookingConfirmationAll(anyLong(), anyList(), anyBoolean()))
+                .thenReturn(List.of(new BookingBatchResultDto(1, BookingStatus.APPROVED, null),
+                        new BookingBatchResultDto(99, null, "Бронирования с таким id: 99 не существует")));
+
+        mockMvc.perform(patch(baseUrl + "/batch")
+                        .header("X-Sharer-User-Id", ownerUser.getId())
+                        .param("approved", String.valueOf(true))
+                        .contentType("application/json")
+                        .content("[1, 99]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].bookingId", is(99)))
+                .andExpect(jsonPath("$[1].error").isNotEmpty());
+    }
+
     @Test
     void getByIdShouldAnswer404WhenBookingNotFound() throws Exception {
         when(bookingService.getById(anyLong(), anyLong()))
@@ -183,7 +216,7 @@ public class BookingControllerTest {
 
     @Test
     void getAllBookingByUserShouldReturnBookings() throws Exception {
-        when(bookingService.getAllBookingByUser(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingService.getAllBookingByUser(anyLong(), any(), any(), any())).thenReturn(List.of(view(booking)));
 
         mockMvc.perform(get(baseUrl + "/")
                         .header("X-Sharer-User-Id", bookerUser.getId())
@@ -194,7 +227,7 @@ public class BookingControllerTest {
 
     @Test
     void getAllBookingByUserShouldMethodArgumentTypeMismatchException() throws Exception {
-        when(bookingService.getAllBookingByUser(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingService.getAllBookingByUser(anyLong(), any(), any(), any())).thenReturn(List.of(view(booking)));
 
         mockMvc.perform(get(baseUrl + "/")
                         .header("X-Sharer-User-Id", bookerUser.getId())
@@ -204,7 +237,7 @@ public class BookingControllerTest {
 
     @Test
     void getAllBookingByOwnerShouldReturnBookings() throws Exception {
-        when(bookingService.getAllBookingByOwner(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingService.getAllBookingByOwner(anyLong(), any(), any(), any())).thenReturn(List.of(view(booking)));
 
         mockMvc.perform(get(baseUrl + "/owner")
                         .header("X-Sharer-User-Id", ownerUser.getId())
@@ -213,4 +246,44 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.length()", is(1)));
     }
 
+    @Test
+    void getAllBookingByUserWithCursorShouldReturnNextCursorWhenPageIsFull() throws Exception {
+        when(bookingService.getAllBookingByUserAfter(anyLong(), any(), isNull(), anyInt())).thenReturn(List.of(view(booking)));
+
+        mockMvc.perform(get(baseUrl)
+                        .header("X-Sharer-User-Id", bookerUser.getId())
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        PageCursor.of(booking.getStart(), booking.getId()).encode()));
+    }
+
+    @Test
+    void getAllBookingByOwnerWithCursorShouldNotReturnNextCursorOnLastPage() throws Exception {
+        when(bookingService.getAllBookingByOwnerAfter(anyLong(), any(), any(), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get(baseUrl + "/owner")
+                        .header("X-Sharer-User-Id", ownerUser.getId())
+                        .param("cursor", PageCursor.of(booking.getStart(), booking.getId()).encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(0)))
+                .andExpect(header().doesNotExist(PageCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllBookingByUserShouldAnswer409WhenCursorIsBroken() throws Exception {
+        mockMvc.perform(get(baseUrl)
+                        .header("X-Sharer-User-Id", bookerUser.getId())
+                        .param("cursor", "broken"))
+                .andExpect(status().isConflict());
+    }
+
+    private static BookingView view(Booking booking) {
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                booking.getItem().isAvailable(), null);
+    }
 }
@@ -1,21 +1,30 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.booking.dao.repository.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static ru.practicum.shareit.booking.dao.specification.BookingSpecifications.*;
 
 @DataJpaTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -25,6 +34,8 @@ public class BookingRepositoryTest {
 
     private final TestEntityManager testEntityManager;
 
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
     private final User ownerUser = User.builder()
             .name("Owner")
             .email("owner@yandex.ru").build();
@@ -41,23 +52,121 @@ public class BookingRepositoryTest {
             .build();
 
     private final Booking booking = Booking.builder()
-            .start(LocalDateTime.now().minusDays(1))
-            .end(LocalDateTime.now().plusDays(1))
+            .start(now.minusDays(1))
+            .end(now.plusDays(1))
             .item(item)
             .booker(bookerUser)
             .status(BookingStatus.APPROVED)
             .build();
 
-    @Test
-    void getAllBookingByUserShouldReturnListOfBookings() {
+    private final Booking pastBooking = Booking.builder()
+            .start(now.minusDays(3))
+            .end(now.minusDays(2))
+            .item(item)
+            .booker(bookerUser)
+            .status(BookingStatus.REJECTED)
+            .build();
+
+    private final Booking futureBooking = Booking.builder()
+            .start(now.plusDays(2))
+            .end(now.plusDays(3))
+            .item(item)
+            .booker(bookerUser)
+            .status(BookingStatus.WAITING)
+            .build();
+
+    private final PageRequest page = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"));
+
+    @BeforeEach
+    void init() {
         testEntityManager.getEntityManager().persist(bookerUser);
         testEntityManager.getEntityManager().persist(ownerUser);
         testEntityManager.getEntityManager().persist(item);
         testEntityManager.getEntityManager().persist(booking);
+        testEntityManager.getEntityManager().persist(pastBooking);
+        testEntityManager.getEntityManager().persist(futureBooking);
+    }
+
+    @Test
+    void getAllBookingByUserShouldReturnListOfBookings() {
+        List<BookingView> bookings = bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.ALL, now)), page);
+
+        assertEquals(ids(futureBooking, booking), ids(bookings));
+    }
+
+    @Test
+    void getAllBookingByUserShouldReturnNextPage() {
+        List<BookingView> bookings = bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.ALL, now)), page.next());
+
+        assertEquals(ids(pastBooking), ids(bookings));
+    }
+
+    @Test
+    void getAllBookingByUserShouldReturnPageAfterCursor() {
+        PageRequest firstPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id")));
+        List<BookingView> first = bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.ALL, now)).and(afterCursor(null)), firstPage);
+        BookingView last = first.get(first.size() - 1);
+        PageCursor cursor = PageCursor.decode(PageCursor.of(last.getStart(), last.getId()).encode());
 
-        List<Booking> bookings = bookingRepository.findAllByBooker_Id(bookerUser.getId(),
-                        PageRequest.of(0, 2)).orElse(new ArrayList<>());
-        assertEquals(bookings.size(), 1);
+        List<BookingView> second = bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.ALL, now)).and(afterCursor(cursor)), firstPage);
+
+        assertEquals(ids(futureBooking, booking), ids(first));
+        assertEquals(ids(pastBooking), ids(second));
     }
 
+    @Test
+    void getAllBookingByUserShouldFilterByStateInQuery() {
+        assertEquals(ids(booking), ids(bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.CURRENT, now)), page)));
+        assertEquals(ids(pastBooking), ids(bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.PAST, now)), page)));
+        assertEquals(ids(futureBooking), ids(bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.FUTURE, now)), page)));
+        assertEquals(ids(futureBooking), ids(bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.WAITING, now)), page)));
+        assertEquals(ids(pastBooking), ids(bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.REJECTED, now)), page)));
+    }
+
+    @Test
+    void getAllBookingByOwnerShouldFilterByStateInQuery() {
+        assertEquals(ids(booking), ids(bookingRepository.findPage(byItemOwner(ownerUser.getId())
+                .and(byState(StateStatus.CURRENT, now)), page)));
+        assertEquals(ids(), ids(bookingRepository.findPage(byItemOwner(bookerUser.getId())
+                .and(byState(StateStatus.ALL, now)), page)));
+    }
+
+    @Test
+    void findLastAndNextBookingsByItemIdsShouldReturnOneBookingPerItem() {
+        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), now);
+        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(List.of(item.getId()), now);
+
+        assertEquals(List.of(pastBooking), lastBookings);
+        assertEquals(List.of(futureBooking), nextBookings);
+    }
+
+    @Test
+    void findPageShouldSelectOnlyDtoColumns() {
+        BookingView view = bookingRepository.findPage(byBooker(bookerUser.getId())
+                .and(byState(StateStatus.CURRENT, now)), page).get(0);
+
+        assertEquals(booking.getId(), view.getId());
+        assertEquals(bookerUser.getEmail(), view.getBookerEmail());
+        assertEquals(item.getName(), view.getItemName());
+        assertNull(view.getItemRequestId());
+        assertEquals(BookingStatus.APPROVED, view.getStatus());
+    }
+
+    private static List<Long> ids(Booking... bookings) {
+        return Arrays.stream(bookings).map(Booking::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<BookingView> bookings) {
+        return bookings.stream().map(BookingView::getId).collect(Collectors.toList());
+    }
 }
@@ -6,9 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.exception.ConflictException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -19,8 +22,12 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.xml.bind.ValidationException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @AutoConfigureTestDatabase
@@ -73,11 +80,80 @@ public class BookingServiceIntegrationTest {
         Booking  bookingCurrent = bookingService.add(bookerUser.getId(), bookingCurrentDto);
         Booking  bookingFuture = bookingService.add(bookerUser.getId(), bookingFutureDto);
 
-        assertEquals(List.of(bookingCurrent), bookingService
-                .getAllBookingByOwner(ownerUser.getId(), StateStatus.CURRENT, 0, 2));
+        assertEquals(List.of(bookingCurrent.getId()), bookingService
+                .getAllBookingByOwner(ownerUser.getId(), StateStatus.CURRENT, 0, 2)
+                .stream().map(BookingView::getId).collect(Collectors.toList()));
 
-        assertEquals(List.of(bookingFuture), bookingService
-                .getAllBookingByOwner(ownerUser.getId(), StateStatus.FUTURE, 0, 2));
+        assertEquals(List.of(bookingFuture.getId()), bookingService
+                .getAllBookingByOwner(ownerUser.getId(), StateStatus.FUTURE, 0, 2)
+                .stream().map(BookingView::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void bookingConfirmationAllShouldApproveWaitingBookingsAndReportOthers() throws ValidationException {
+        User owner = userService.add(UserDto.builder().name("Batch owner").email("batch-owner@yandex.ru").build());
+        User stranger = userService.add(UserDto.builder().name("Stranger").email("batch-stranger@yandex.ru").build());
+        User booker = userService.add(UserDto.builder().name("Batch booker").email("batch-booker@yandex.ru").build());
+        Item item = itemService.add(owner.getId(), itemDto);
+        Item strangerItem = itemService.add(stranger.getId(), itemDto);
+        Booking first = bookingService.add(booker.getId(), bookingDto(item, 10));
+        Booking second = bookingService.add(booker.getId(), bookingDto(item, 20));
+        Booking approved = bookingService.add(booker.getId(), bookingDto(item, 30));
+        bookingService.bookingConfirmation(owner.getId(), approved.getId(), true);
+        Booking foreign = bookingService.add(booker.getId(), bookingDto(strangerItem, 10));
+
+        List<BookingBatchResultDto> results = bookingService.bookingConfirmationAll(owner.getId(),
+                List.of(first.getId(), 999_999L, foreign.getId(), approved.getId(), second.getId(), first.getId()),
+                true);
+
+        assertEquals(List.of(first.getId(), 999_999L, foreign.getId(), approved.getId(), second.getId()),
+                results.stream().map(BookingBatchResultDto::getBookingId).collect(Collectors.toList()));
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(2).getError());
+        assertEquals(BookingStatus.APPROVED, results.get(3).getStatus());
+        assertNotNull(results.get(3).getError());
+        assertEquals(BookingStatus.APPROVED, results.get(4).getStatus());
+        assertNull(results.get(4).getError());
+        assertEquals(BookingStatus.APPROVED, bookingService.getById(owner.getId(), second.getId()).getStatus());
+        assertEquals(BookingStatus.WAITING, bookingService.getById(booker.getId(), foreign.getId()).getStatus());
+    }
+
+    @Test
+    void overlappingBookingsShouldWaitButOnlyOneBeApproved() throws ValidationException {
+        User owner = userService.add(UserDto.builder().name("Owner").email("overlap-owner@yandex.ru").build());
+        User first = userService.add(UserDto.builder().name("First").email("overlap-first@yandex.ru").build());
+        User second = userService.add(UserDto.builder().name("Second").email("overlap-second@yandex.ru").build());
+        Item item = itemService.add(owner.getId(), itemDto);
+        Booking firstWaiting = bookingService.add(first.getId(), bookingDto(item, 10));
+        Booking secondWaiting = bookingService.add(second.getId(), bookingDto(item, 10));
+        Booking approved = bookingService.add(first.getId(), bookingDto(item, 20));
+        Booking overlapsApproved = bookingService.add(second.getId(), bookingDto(item, 20));
+        bookingService.bookingConfirmation(owner.getId(), approved.getId(), true);
+        assertThrows(ConflictException.class, () -> bookingService.add(second.getId(), bookingDto(item, 20)));
+
+        List<BookingBatchResultDto> results = bookingService.bookingConfirmationAll(owner.getId(),
+                List.of(firstWaiting.getId(), secondWaiting.getId(), overlapsApproved.getId()), true);
+
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals(BookingStatus.WAITING, results.get(1).getStatus());
+        assertNotNull(results.get(1).getError());
+        assertEquals(BookingStatus.WAITING, results.get(2).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertThrows(ConflictException.class,
+                () -> bookingService.bookingConfirmation(owner.getId(), secondWaiting.getId(), true));
+        assertEquals(BookingStatus.REJECTED,
+                bookingService.bookingConfirmation(owner.getId(), secondWaiting.getId(), false).getStatus());
+    }
+
+    private BookingInputDto bookingDto(Item item, int startInDays) {
+        return BookingInputDto.builder()
+                .itemId(item.getId())
+                .startDate(LocalDateTime.now().plusDays(startInDays))
+                .endDate(LocalDateTime.now().plusDays(startInDays + 1))
+                .build();
     }
 
 }
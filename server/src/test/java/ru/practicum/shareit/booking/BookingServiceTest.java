@@ -2,12 +2,17 @@ package ru.practicum.shareit.booking;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.dao.repository.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.error.exception.*;
@@ -19,6 +24,7 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.xml.bind.ValidationException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -79,8 +85,8 @@ class BookingServiceTest {
     @Test
     void addBooking() throws ValidationException {
         when(userService.getById(anyLong())).thenReturn(ownerUser);
-        when(itemService.getById(anyLong(), anyLong())).thenReturn(itemFirst);
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(itemService.lock(anyLong())).thenReturn(itemFirst);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
 
         Booking bookingTest = bookingService.add(bookerUser.getId(), bookingInputDto);
         assertNotNull(bookingTest);
@@ -89,13 +95,13 @@ class BookingServiceTest {
         assertEquals(booking.getStart(), bookingTest.getStart());
         assertEquals(booking.getEnd(), bookingTest.getEnd());
 
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingRepository, times(1)).saveAndFlush(any());
     }
 
     @Test
     void addBookingShouldItemNotFoundExceptionWhenItemWrongId() {
         when(userService.getById(anyLong())).thenReturn(bookerUser);
-        when(itemService.getById(anyLong(), anyLong())).thenThrow(new ItemNotFoundException(""));
+        when(itemService.lock(anyLong())).thenThrow(new ItemNotFoundException(""));
 
         assertThrows(ItemNotFoundException.class, () -> bookingService.add(bookerUser.getId(), bookingInputDto));
     }
@@ -110,7 +116,7 @@ class BookingServiceTest {
     @Test
     void addBookingShouldAccessErrorExceptionWhenBookerIsOwner() {
         when(userService.getById(anyLong())).thenReturn(ownerUser);
-        when(itemService.getById(anyLong(), anyLong())).thenReturn(itemFirst);
+        when(itemService.lock(anyLong())).thenReturn(itemFirst);
 
         assertThrows(AccessErrorException.class, () -> bookingService.add(ownerUser.getId(), bookingInputDto));
     }
@@ -125,15 +131,39 @@ class BookingServiceTest {
                 .build();
 
         when(userService.getById(anyLong())).thenReturn(ownerUser);
-        when(itemService.getById(anyLong(), anyLong())).thenReturn(itemFirst);
+        when(itemService.lock(anyLong())).thenReturn(itemFirst);
 
         assertThrows(BadRequestException.class, () -> bookingService.add(ownerUser.getId(), bookingInputDtoWrong));
     }
 
+    @Test
+    void addBookingShouldConflictExceptionWhenItemAlreadyBooked() {
+        when(userService.getById(anyLong())).thenReturn(bookerUser);
+        when(itemService.lock(anyLong())).thenReturn(itemFirst);
+        when(bookingRepository.existsOverlapping(eq(itemFirst.getId()), anyLong(), anyCollection(),
+                eq(bookingInputDto.getStartDate()), eq(bookingInputDto.getEndDate()))).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.add(bookerUser.getId(), bookingInputDto));
+        verify(itemService).lock(itemFirst.getId());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void bookingConfirmationShouldConflictExceptionWhenApprovedOverlaps() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(bookingWaitingStatus));
+        when(bookingRepository.existsOverlapping(eq(itemFirst.getId()), eq(bookingWaitingStatus.getId()),
+                anyCollection(), any(), any())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.bookingConfirmation(ownerUser.getId(),
+                bookingWaitingStatus.getId(), true));
+        verify(bookingRepository, never()).updateStatus(anyCollection(), anyLong(), anyCollection(), any());
+    }
+
     @Test
     void bookingConfirmation() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(bookingWaitingStatus));
-        when(bookingRepository.save(any())).thenReturn(bookingWaitingStatus);
+        when(bookingRepository.updateStatus(List.of(bookingWaitingStatus.getId()), ownerUser.getId(),
+                List.of(BookingStatus.WAITING), BookingStatus.APPROVED)).thenReturn(1);
 
         Booking bookingApproved = bookingService.bookingConfirmation(ownerUser.getId(),
                 bookingWaitingStatus.getId(), true);
@@ -143,7 +173,80 @@ class BookingServiceTest {
         assertEquals(bookingWaitingStatus.getEnd(), bookingApproved.getEnd());
         assertEquals(BookingStatus.APPROVED, bookingApproved.getStatus());
 
-        verify(bookingRepository, times(1)).save(any());
+        verify(itemService, times(1)).lock(itemFirst.getId());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void bookingConfirmationShouldApproveRejectedBooking() {
+        bookingWaitingStatus.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(bookingWaitingStatus));
+        when(bookingRepository.updateStatus(List.of(bookingWaitingStatus.getId()), ownerUser.getId(),
+                List.of(BookingStatus.REJECTED), BookingStatus.APPROVED)).thenReturn(1);
+
+        Booking bookingApproved = bookingService.bookingConfirmation(ownerUser.getId(),
+                bookingWaitingStatus.getId(), true);
+        assertEquals(BookingStatus.APPROVED, bookingApproved.getStatus());
+    }
+
+    @Test
+    void bookingConfirmationShouldRejectWithUpdateBeforeLoading() {
+        when(bookingRepository.updateStatus(eq(List.of(bookingWaitingStatus.getId())), eq(ownerUser.getId()),
+                argThat(expected -> !expected.contains(BookingStatus.APPROVED)), eq(BookingStatus.REJECTED)))
+                .thenReturn(1);
+        when(bookingRepository.findById(bookingWaitingStatus.getId())).thenAnswer(invocation -> {
+            bookingWaitingStatus.setStatus(BookingStatus.REJECTED);
+            return Optional.of(bookingWaitingStatus);
+        });
+
+        Booking bookingRejected = bookingService.bookingConfirmation(ownerUser.getId(),
+                bookingWaitingStatus.getId(), false);
+
+        assertEquals(BookingStatus.REJECTED, bookingRejected.getStatus());
+        InOrder inOrder = inOrder(bookingRepository);
+        inOrder.verify(bookingRepository).updateStatus(anyCollection(), anyLong(), anyCollection(), any());
+        inOrder.verify(bookingRepository).findById(bookingWaitingStatus.getId());
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void bookingConfirmationShouldConflictExceptionWhenStatusChangedConcurrently() {
+        when(bookingRepository.updateStatus(anyCollection(), anyLong(), anyCollection(), any())).thenReturn(0);
+        when(bookingRepository.findStatusViews(List.of(bookingWaitingStatus.getId()))).thenReturn(List.of(
+                statusView(bookingWaitingStatus, BookingStatus.WAITING)));
+
+        assertThrows(ConflictException.class, () -> bookingService.bookingConfirmation(ownerUser.getId(),
+                bookingWaitingStatus.getId(), false));
+        verify(bookingRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void rejectionShouldBookingNotFoundExceptionWhenBookingWrongId() {
+        when(bookingRepository.updateStatus(anyCollection(), anyLong(), anyCollection(), any())).thenReturn(0);
+        when(bookingRepository.findStatusViews(anyCollection())).thenReturn(List.of());
+
+        assertThrows(BookingNotFoundException.class, () -> bookingService.bookingConfirmation(ownerUser.getId(),
+                bookingWaitingStatus.getId(), false));
+    }
+
+    @Test
+    void rejectionShouldBadRequestExceptionWhenStatusIsApprove() {
+        when(bookingRepository.updateStatus(anyCollection(), anyLong(), anyCollection(), any())).thenReturn(0);
+        when(bookingRepository.findStatusViews(anyCollection())).thenReturn(List.of(
+                statusView(booking, BookingStatus.APPROVED)));
+
+        assertThrows(BadRequestException.class, () -> bookingService.bookingConfirmation(bookerUser.getId(),
+                booking.getId(), false));
+    }
+
+    @Test
+    void rejectionShouldAccessErrorExceptionWhenUserIsNotOwner() {
+        when(bookingRepository.updateStatus(anyCollection(), anyLong(), anyCollection(), any())).thenReturn(0);
+        when(bookingRepository.findStatusViews(anyCollection())).thenReturn(List.of(
+                statusView(bookingWaitingStatus, BookingStatus.WAITING)));
+
+        assertThrows(AccessErrorException.class, () -> bookingService.bookingConfirmation(bookerUser.getId(),
+                bookingWaitingStatus.getId(), false));
     }
 
     @Test
@@ -170,7 +273,7 @@ class BookingServiceTest {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         assertThrows(BadRequestException.class,
-                () -> bookingService.bookingConfirmation(ownerUser.getId(), booking.getId(), true));
+                () -> bookingService.bookingConfirmation(bookerUser.getId(), booking.getId(), true));
     }
 
     @Test
@@ -213,128 +316,73 @@ class BookingServiceTest {
 
     @Test
     void getAllBookingByUserShouldReturnListOfBookings() {
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any(Pageable.class)))
-                .thenReturn(Optional.of(List.of(booking, bookingWaitingStatus)));
-        when(userService.getById(anyLong())).thenReturn(bookerUser);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
+                .thenReturn(List.of(view(booking), view(bookingWaitingStatus)));
 
-        List<Booking> bookings = bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.ALL,
+        List<BookingView> bookings = bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.ALL,
                 0, 2);
 
         assertNotNull(bookings);
         assertEquals(bookings.size(), 2);
 
-        verify(bookingRepository, times(1)).findAllByBooker_Id(anyLong(), any(Pageable.class));
+        verify(bookingRepository, times(1)).findPage(any(), any(Pageable.class));
     }
 
     @Test
-    void getAllBookingByUserShouldBookingNotFoundExceptionWhenBookingsIsNull() {
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any(Pageable.class))).thenReturn(Optional.empty());
+    void getAllBookingByUserShouldRequestPageSortedByStartDesc() {
+        when(bookingRepository.findPage(any(), any(Pageable.class))).thenReturn(List.of(view(booking)));
 
-        assertThrows(BookingNotFoundException.class,
-                () -> bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.ALL, 0, 2));
-    }
-
-    @Test
-    void getAllBookingByUserWhenBookingStatusIsWaiting() {
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any(Pageable.class)))
-                .thenReturn(Optional.of(List.of(booking, bookingWaitingStatus)));
-
-        List<Booking> bookings = bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.WAITING,
-                0, 2);
-        assertNotNull(bookings);
-        assertEquals(bookings.size(), 1);
-        assertEquals(bookings.get(0).getStatus(), BookingStatus.WAITING);
+        bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.WAITING, 4, 2);
 
-        verify(bookingRepository, times(1)).findAllByBooker_Id(anyLong(), any(Pageable.class));
-    }
-
-    @Test
-    void getAllBookingByUserWhenBookingStatusIsPast() {
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any(Pageable.class)))
-                .thenReturn(Optional.of(List.of(booking, bookingWaitingStatus)));
-
-        List<Booking> bookings = bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.PAST,
-                0, 2);
-        assertNotNull(bookings);
-        assertEquals(bookings.size(), 2);
-
-        verify(bookingRepository, times(1)).findAllByBooker_Id(anyLong(), any(Pageable.class));
-    }
-
-    @Test
-    void getAllBookingByUserWhenBookingStatusIsFuture() {
-        final Booking futureBooking = Booking.builder()
-                .id(3L)
-                .start(date.plusDays(1))
-                .end(date.plusDays(2))
-                .item(itemFirst)
-                .booker(bookerUser)
-                .status(BookingStatus.APPROVED)
-                .build();
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any(Pageable.class)))
-                .thenReturn(Optional.of(List.of(booking, futureBooking)));
-
-        List<Booking> bookings = bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.FUTURE,
-                0, 2);
-        assertNotNull(bookings);
-        assertEquals(bookings.size(), 1);
-        assertTrue(bookings.get(0).getStart().isAfter(date));
-
-        verify(bookingRepository, times(1)).findAllByBooker_Id(anyLong(), any(Pageable.class));
-    }
-
-    @Test
-    void getAllBookingByBookerWhenBookingStatusIsCurrent() {
-        final Booking currentBooking = Booking.builder()
-                .id(3L)
-                .start(date.minusDays(1))
-                .end(date.plusDays(1))
-                .item(itemFirst)
-                .booker(bookerUser)
-                .status(BookingStatus.APPROVED)
-                .build();
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any(Pageable.class)))
-                .thenReturn(Optional.of(List.of(booking, currentBooking)));
-
-        List<Booking> bookings = bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.CURRENT,
-                0, 2);
-        assertNotNull(bookings);
-        assertEquals(bookings.size(), 1);
-        assertTrue(bookings.get(0).getEnd().isAfter(date));
-
-        verify(bookingRepository, times(1)).findAllByBooker_Id(anyLong(), any(Pageable.class));
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(bookingRepository, times(1)).findPage(any(), pageableCaptor.capture());
+        assertEquals(2, pageableCaptor.getValue().getPageNumber());
+        assertEquals(2, pageableCaptor.getValue().getPageSize());
+        assertEquals(Sort.Direction.DESC,
+                Objects.requireNonNull(pageableCaptor.getValue().getSort().getOrderFor("start")).getDirection());
     }
 
     @Test
     void getAllBookingByBookerShouldBadRequestExceptionWhenBookingStatusIsWrong() {
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any(Pageable.class)))
-                .thenReturn(Optional.of(List.of(booking, bookingWaitingStatus)));
-
         assertThrows(BadRequestException.class,
                 () -> bookingService.getAllBookingByUser(bookerUser.getId(), StateStatus.ERROR, 0, 2));
+
+        verify(bookingRepository, never()).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingByOwnerId() {
-        when(bookingRepository.findAllByItemOwnerId(anyLong(), any(Pageable.class)))
-                .thenReturn(Optional.of(List.of(booking, bookingWaitingStatus)));
-        when(userService.getById(anyLong())).thenReturn(ownerUser);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
+                .thenReturn(List.of(view(booking), view(bookingWaitingStatus)));
 
-        List<Booking> bookings = bookingService.getAllBookingByOwner(ownerUser.getId(), StateStatus.ALL,
+        List<BookingView> bookings = bookingService.getAllBookingByOwner(ownerUser.getId(), StateStatus.ALL,
                 0, 2);
 
         assertNotEquals(bookings, null);
         assertEquals(bookings.size(), 2);
 
-        verify(bookingRepository, times(1)).findAllByItemOwnerId(anyLong(), any(Pageable.class));
+        verify(bookingRepository, times(1)).findPage(any(), any(Pageable.class));
     }
 
     @Test
-    void getAllBookingByOwnerShouldBookingNotFoundExceptionWhenBookingsIsNull() {
-        when(bookingRepository.findAllByItemOwnerId(anyLong(), any(Pageable.class))).thenReturn(Optional.empty());
+    void getAllBookingByOwnerShouldUserNotFoundExceptionWhenOwnerWrongId() {
+        doThrow(new UserNotFoundException("")).when(userService).checkExists(anyLong());
 
-        assertThrows(BookingNotFoundException.class,
-                () -> bookingService.getAllBookingByOwner(ownerUser.getId(), StateStatus.ALL, 0, 2));
+        assertThrows(UserNotFoundException.class,
+                () -> bookingService.getAllBookingByOwner(99L, StateStatus.ALL, 0, 2));
+
+        verify(bookingRepository, never()).findPage(any(), any(Pageable.class));
+    }
+
+    private static BookingView view(Booking booking) {
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                booking.getItem().isAvailable(), null);
     }
 
-}
\ No newline at end of file
+    private static BookingStatusView statusView(Booking booking, BookingStatus status) {
+        return new BookingStatusView(booking.getId(), status, booking.getItem().getOwner().getId(),
+                booking.getItem().getId(), booking.getStart(), booking.getEnd());
+    }
+}
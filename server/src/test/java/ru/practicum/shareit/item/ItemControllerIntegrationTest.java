@@ -5,11 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -17,10 +19,14 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @AutoConfigureTestDatabase
@@ -77,10 +83,34 @@ public class ItemControllerIntegrationTest {
         Booking bookingPast = bookingService.add(bookerUser.getId(), bookingCurrentDto);
         Booking  bookingFuture = bookingService.add(bookerUser.getId(), bookingFutureDto);
         HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        HttpServletResponse httpServletResponse = mock(HttpServletResponse.class);
 
-        assertEquals(item.getId(), itemController.getAllByUserId(ownerUser.getId(), 0, 2, httpServletRequest).get(0).getId());
-        assertEquals(bookingPast.getId(), itemController.getAllByUserId(ownerUser.getId(), 0, 2, httpServletRequest).get(0).getLastBooking().getId());
-        assertEquals(bookingFuture.getId(), itemController.getAllByUserId(ownerUser.getId(), 0, 2, httpServletRequest).get(0).getNextBooking().getId());
+        assertEquals(item.getId(), itemController.getAllByUserId(ownerUser.getId(), 0, 2, null, httpServletRequest,
+                httpServletResponse).get(0).getId());
+        assertEquals(bookingPast.getId(), itemController.getAllByUserId(ownerUser.getId(), 0, 2, null, httpServletRequest,
+                httpServletResponse).get(0).getLastBooking().getId());
+        assertEquals(bookingFuture.getId(), itemController.getAllByUserId(ownerUser.getId(), 0, 2, null, httpServletRequest,
+                httpServletResponse).get(0).getNextBooking().getId());
+    }
+
+    @Test
+    void getAllByUserIdWithCursorShouldReturnItemsPageByPage() {
+        User ownerUser = userService.add(UserDto.builder()
+                .name("Cursor owner")
+                .email("cursor.owner@yandex.ru").build());
+        Item item = itemService.add(ownerUser.getId(), itemDto);
+        Item anotherItem = itemService.add(ownerUser.getId(), anotherItemDto);
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        HttpServletResponse httpServletResponse = mock(HttpServletResponse.class);
+        String nextCursor = PageCursor.of(item.getId()).encode();
+
+        assertEquals(List.of(item.getId()), itemController.getAllByUserId(ownerUser.getId(), 0, 1, "",
+                httpServletRequest, httpServletResponse).stream().map(ItemDtoWithBooking::getId)
+                .collect(Collectors.toList()));
+        verify(httpServletResponse).setHeader(PageCursor.NEXT_CURSOR_HEADER, nextCursor);
+        assertEquals(List.of(anotherItem.getId()), itemController.getAllByUserId(ownerUser.getId(), 0, 1, nextCursor,
+                httpServletRequest, httpServletResponse).stream().map(ItemDtoWithBooking::getId)
+                .collect(Collectors.toList()));
     }
 
 }
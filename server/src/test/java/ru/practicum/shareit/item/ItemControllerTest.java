@@ -104,8 +104,7 @@ public class ItemControllerTest {
 
     @Test
     void getAllByUserIdShouldReturnEmptyListWhenUserDontHaveItem() throws Exception {
-        when(userService.getById(anyLong())).thenReturn(user);
-        when(itemRepository.findByOwner(any(), any())).thenReturn((new ArrayList<>()));
+        when(itemRepository.findByOwnerId(anyLong(), any())).thenReturn((new ArrayList<>()));
         mockMvc.perform(get(baseUrl).header("X-Sharer-User-Id", user.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()", is(0)));
@@ -54,4 +54,33 @@ public class ItemRepositoryTest {
         assertEquals(items.size(), 1);
         assertEquals(items.get(0).getName(), anotherItem.getName());
     }
+
+    @Test
+    void searchByTextShouldSkipUnavailableItemsAndRankNameMatchesFirst() {
+        Item descriptionMatch = Item.builder()
+                .name("Drill")
+                .description("Works like a hammer")
+                .available(true)
+                .owner(user)
+                .build();
+        Item nameMatch = Item.builder()
+                .name("Hammer")
+                .description("Steel")
+                .available(true)
+                .owner(user)
+                .build();
+        Item unavailable = Item.builder()
+                .name("Old hammer")
+                .description("Broken")
+                .available(false)
+                .owner(user)
+                .build();
+        testEntityManager.getEntityManager().persist(user);
+        testEntityManager.getEntityManager().persist(descriptionMatch);
+        testEntityManager.getEntityManager().persist(nameMatch);
+        testEntityManager.getEntityManager().persist(unavailable);
+
+        assertEquals(List.of(nameMatch, descriptionMatch), itemRepository.searchByText("HAMMER", PageRequest.of(0, 2)));
+        assertEquals(List.of(descriptionMatch), itemRepository.searchByText("hammer", PageRequest.of(1, 1)));
+    }
 }
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dao.repository.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchText;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void init() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository, true,
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                        .getBeanProvider(MeterRegistry.class));
+        when(itemRepository.findAllSearchTexts()).thenReturn(List.of(
+                searchText(3L, "Дрель ударная", "Мощная дрель с аккумулятором"),
+                searchText(1L, "Отвёртка", "Аккумуляторная отвёртка"),
+                searchText(2L, "Молоток", null)));
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchShouldMatchWordPrefixesCaseInsensitive() {
+        assertEquals(List.of(1L, 3L), itemSearchIndex.search("АККУМ", 0, 10));
+        assertEquals(List.of(2L), itemSearchIndex.search("молот", 0, 10));
+        assertTrue(itemSearchIndex.search("олот", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchShouldIntersectAllTermsAndPage() {
+        assertEquals(List.of(3L), itemSearchIndex.search("дрель, аккум", 0, 10));
+        assertEquals(List.of(3L), itemSearchIndex.search("аккум", 1, 1));
+        assertTrue(itemSearchIndex.search("дрель молоток", 0, 10).isEmpty());
+    }
+
+    @Test
+    void indexShouldUpdateAndRemoveItems() {
+        Item hammer = Item.builder().id(2L).name("Кувалда").description("Тяжёлая").available(true).build();
+        itemSearchIndex.index(hammer);
+
+        assertTrue(itemSearchIndex.search("молоток", 0, 10).isEmpty());
+        assertEquals(List.of(2L), itemSearchIndex.search("кувал", 0, 10));
+
+        hammer.setAvailable(false);
+        itemSearchIndex.index(hammer);
+        assertTrue(itemSearchIndex.search("кувал", 0, 10).isEmpty());
+
+        itemSearchIndex.remove(3L);
+        assertEquals(List.of(1L), itemSearchIndex.search("аккум", 0, 10));
+    }
+
+    @Test
+    void indexShouldApplyChangesOnlyAfterCommit() {
+        Item hammer = Item.builder().id(2L).name("Кувалда").description("Тяжёлая").available(true).build();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(hammer);
+            itemSearchIndex.remove(3L);
+            hammer.setName("Киянка");
+
+            assertEquals(List.of(2L), itemSearchIndex.search("молоток", 0, 10));
+            assertEquals(List.of(3L), itemSearchIndex.search("дрель", 0, 10));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(2L), itemSearchIndex.search("кувал", 0, 10));
+        assertTrue(itemSearchIndex.search("киянка", 0, 10).isEmpty());
+        assertTrue(itemSearchIndex.search("дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void indexShouldIgnoreRolledBackChanges() {
+        Item hammer = Item.builder().id(2L).name("Кувалда").description("Тяжёлая").available(true).build();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(hammer);
+            itemSearchIndex.remove(3L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(itemSearchIndex.search("кувал", 0, 10).isEmpty());
+        assertEquals(List.of(2L), itemSearchIndex.search("молоток", 0, 10));
+        assertEquals(List.of(3L), itemSearchIndex.search("дрель", 0, 10));
+    }
+
+    @Test
+    void searchShouldMergeManyPrefixTerms() {
+        List<Item> items = LongStream.rangeClosed(10, 500)
+                .mapToObj(id -> Item.builder().id(id).name("Пила" + id).description("пила").available(true).build())
+                .collect(Collectors.toList());
+        itemSearchIndex.indexAll(items);
+
+        List<Long> expected = LongStream.rangeClosed(10, 500).boxed().collect(Collectors.toList());
+        assertEquals(expected, itemSearchIndex.search("пил", 0, 1000));
+        assertEquals(List.of(3L), itemSearchIndex.search("д", 0, 10));
+    }
+
+    @Test
+    void rebuildShouldPublishMetrics() {
+        assertEquals(1, meterRegistry.get("shareit.item.search.index.rebuild").timer().count());
+        assertEquals(8, meterRegistry.get("shareit.item.search.index.terms").gauge().value());
+        assertTrue(meterRegistry.get("shareit.item.search.index.memory").gauge().value() > 0);
+    }
+
+    @Test
+    void disabledIndexShouldNotLoadItems() {
+        ItemRepository repository = mock(ItemRepository.class);
+        ItemSearchIndex disabled = new ItemSearchIndex(repository, false,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+        disabled.rebuild();
+
+        verifyNoInteractions(repository);
+    }
+
+    private static ItemSearchText searchText(Long id, String name, String description) {
+        return new ItemSearchText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
@@ -9,9 +9,13 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -19,8 +23,11 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.xml.bind.ValidationException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @AutoConfigureTestDatabase
@@ -30,6 +37,7 @@ public class ItemServiceIntegrationTest {
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
 
     private final UserDto ownerUserDto = UserDto.builder()
             .name("OwnerUser")
@@ -83,4 +91,29 @@ public class ItemServiceIntegrationTest {
                 itemService.getAllByUserId(ownerUser.getId(), 0, 5).get(0).getNextBooking().getId());
     }
 
+    @Test
+    void addAllShouldSaveValidItemsAndReportMissingRequests() {
+        User ownerUser = userService.add(UserDto.builder().name("BatchOwner").email("batchOwner@yandex.ru").build());
+        User requestor = userService.add(UserDto.builder().name("Requestor").email("requestor@yandex.ru").build());
+        ItemRequest request = itemRequestService.add(requestor.getId(),
+                ItemRequestDto.builder().description("Нужна дрель").build());
+        ItemDto requested = ItemDto.builder().name("Дрель").description("Дрель по запросу").available(true)
+                .requestId(request.getId()).build();
+        ItemDto missingRequest = ItemDto.builder().name("Пила").description("Пила").available(true)
+                .requestId(Long.MAX_VALUE).build();
+
+        List<ItemBatchResultDto> results = itemService.addAll(ownerUser.getId(),
+                List.of(itemDto, missingRequest, requested));
+
+        assertEquals(List.of(0, 1, 2), results.stream().map(ItemBatchResultDto::getIndex)
+                .collect(Collectors.toList()));
+        assertNull(results.get(0).getError());
+        assertNotNull(results.get(1).getError());
+        assertNull(results.get(1).getItem());
+        assertEquals(request.getId(), results.get(2).getItem().getRequestId());
+        assertEquals(List.of(results.get(0).getItem().getId(), results.get(2).getItem().getId()),
+                itemService.getAllByUserId(ownerUser.getId(), 0, 5).stream().map(Item::getId)
+                        .collect(Collectors.toList()));
+    }
+
 }
@@ -18,8 +18,10 @@ import ru.practicum.shareit.item.comment.CommentsRepository;
 import ru.practicum.shareit.item.dao.repository.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.service.ItemRequestCreator;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -27,6 +29,7 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -34,6 +37,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
@@ -56,6 +61,9 @@ public class ItemServiceTest {
     @Mock
     private ItemRequestCreator itemRequestCreator;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
     private final long userId = 1;
     private final long itemId = 1;
     private final long userIdWrong = 99L;
@@ -89,7 +97,7 @@ public class ItemServiceTest {
     @BeforeEach
     void init() {
         itemService = new ItemServiceImpl(itemRepository, userService, bookingService,
-                commentsRepository, itemRequestCreator);
+                commentsRepository, itemRequestCreator, itemSearchIndex);
     }
 
     @Test
@@ -112,15 +120,66 @@ public class ItemServiceTest {
 
     @Test
     void getAllByUserIdShouldReturnItem() {
-        when(userService.getById(anyLong())).thenReturn(user);
-        when(itemRepository.findByOwner(any(), any())).thenReturn((List.of(item)));
+        when(itemRepository.findByOwnerId(anyLong(), any())).thenReturn((List.of(item)));
 
         List<Item> result = itemService.getAllByUserId(userId, 0, 2);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(item.getOwner(), result.get(0).getOwner());
-        verify(itemRepository, times(1)).findByOwner(any(), any());
+        verify(itemRepository, times(1)).findByOwnerId(eq(userId), any());
+    }
+
+    @Test
+    void getAllByUserIdShouldLoadCommentsAndBookingsForPageInBulk() {
+        Item anotherItem = Item.builder()
+                .id(2L)
+                .name("Another item")
+                .description("Another item description")
+                .available(true)
+                .owner(user)
+                .build();
+        Booking lastBooking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.APPROVED)
+                .build();
+        Booking nextBooking = Booking.builder()
+                .id(2L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(anotherItem)
+                .booker(user)
+                .status(BookingStatus.APPROVED)
+                .build();
+        CommentDto comment = CommentDto.builder()
+                .id(1L)
+                .text("Комментарий")
+                .item(anotherItem.getId())
+                .authorName(user.getName())
+                .created(LocalDateTime.now())
+                .build();
+
+        when(itemRepository.findByOwnerId(anyLong(), any())).thenReturn(List.of(anotherItem, item));
+        when(commentsRepository.findAllDtoByItemIds(List.of(2L, 1L))).thenReturn(List.of(comment));
+        when(bookingService.getLastBookings(List.of(2L, 1L))).thenReturn(Map.of(item.getId(), lastBooking));
+        when(bookingService.getNextBookings(List.of(2L, 1L))).thenReturn(Map.of(anotherItem.getId(), nextBooking));
+
+        List<Item> result = itemService.getAllByUserId(userId, 0, 2);
+
+        assertEquals(List.of(item, anotherItem), result);
+        assertEquals(lastBooking, result.get(0).getLastBooking());
+        assertNull(result.get(0).getNextBooking());
+        assertTrue(result.get(0).getComments().isEmpty());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(nextBooking, result.get(1).getNextBooking());
+        assertEquals(List.of(comment), result.get(1).getComments());
+        verify(commentsRepository, times(1)).findAllDtoByItemIds(any());
+        verify(bookingService, times(1)).getLastBookings(any());
+        verify(bookingService, times(1)).getNextBookings(any());
     }
 
     @Test
@@ -165,6 +224,17 @@ public class ItemServiceTest {
         assertEquals("Updated item", result.getName());
     }
 
+    @Test
+    void searchByTextShouldUseInMemoryIndexWhenEnabled() {
+        Item anotherItem = Item.builder().id(2L).name("Another item").available(true).owner(user).build();
+        when(itemSearchIndex.isEnabled()).thenReturn(true);
+        when(itemSearchIndex.search("item", 0, 2)).thenReturn(List.of(2L, itemId));
+        when(itemRepository.findAllById(List.of(2L, itemId))).thenReturn(List.of(item, anotherItem));
+
+        assertEquals(List.of(anotherItem, item), itemService.searchByText("item", 0, 2));
+        verify(itemRepository, never()).searchByText(any(), any());
+    }
+
     @Test
     void searchByTextShouldReturnItem() {
         when(itemRepository.searchByText(any(), any())).thenReturn(List.of(item));
@@ -220,6 +290,26 @@ public class ItemServiceTest {
         assertTrue(resultItem.contains(item));
     }
 
+    @Test
+    void getAllByRequestIdsShouldGroupItemsByRequestId() {
+        ItemRequest itemRequest = ItemRequest.builder().id(1L).description("Request").build();
+        ItemRequest anotherItemRequest = ItemRequest.builder().id(2L).description("Another request").build();
+        Item anotherItem = Item.builder()
+                .id(2L)
+                .name("Another item")
+                .itemRequest(anotherItemRequest)
+                .build();
+        item.setItemRequest(itemRequest);
+        when(itemRepository.findAllByItemRequest_IdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(item, anotherItem));
+
+        Map<Long, Set<Item>> result = itemService.getAllByRequestIds(List.of(1L, 2L, 3L));
+
+        verify(itemRepository, times(1)).findAllByItemRequest_IdIn(any());
+        assertEquals(Set.of(item), result.get(1L));
+        assertEquals(Set.of(anotherItem), result.get(2L));
+        assertFalse(result.containsKey(3L));
+    }
+
     @Test
     void deleteShouldDelete() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
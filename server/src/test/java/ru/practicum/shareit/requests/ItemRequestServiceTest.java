@@ -5,9 +5,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.PageCursor;
 import ru.practicum.shareit.error.exception.ConflictException;
 import ru.practicum.shareit.error.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.error.exception.UserNotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.requests.dao.repository.ItemRequestRepository;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
@@ -18,10 +20,13 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -77,7 +82,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void getAllItemRequestsByUserIdShouldThrowUserNotFoundExceptionWhenUserWrong() {
-        when(userService.getById(anyLong())).thenThrow(UserNotFoundException.class);
+        doThrow(UserNotFoundException.class).when(userService).checkExists(anyLong());
 
         assertThrows(UserNotFoundException.class, () -> itemRequestService.getAllItemRequestsByUserId(userIdWrong));
     }
@@ -93,7 +98,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void getItemRequestByIdShouldThrowUserNotFoundExceptionWhenUserWrong() {
-        when(userService.getById(anyLong())).thenThrow(UserNotFoundException.class);
+        doThrow(UserNotFoundException.class).when(userService).checkExists(anyLong());
 
         assertThrows(UserNotFoundException.class, () -> itemRequestService.getItemRequestById(requestId, userIdWrong));
     }
@@ -135,4 +140,49 @@ public class ItemRequestServiceTest {
         verify(requestRepository, times(1)).findAllByRequestor_IdIsNot(anyLong(), any());
     }
 
+    @Test
+    void getAllItemRequestsCreatedAnotherUsersShouldLoadItemsForPageInOneCall() {
+        ItemRequest anotherItemRequest = ItemRequest.builder()
+                .id(2L)
+                .description("Another request description")
+                .requestor(user)
+                .createdTime(LocalDateTime.now())
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("Item")
+                .itemRequest(anotherItemRequest)
+                .build();
+        when(requestRepository.findAllByRequestor_IdIsNot(anyLong(), any()))
+                .thenReturn(Optional.of(List.of(itemRequest, anotherItemRequest)));
+        when(itemService.getAllByRequestIds(List.of(itemRequest.getId(), anotherItemRequest.getId())))
+                .thenReturn(Map.of(anotherItemRequest.getId(), Set.of(item)));
+
+        List<ItemRequest> result = itemRequestService.getAllItemRequestsCreatedAnotherUsers(userIdWrong, 0, 2);
+
+        assertTrue(result.get(0).getItems().isEmpty());
+        assertEquals(Set.of(item), result.get(1).getItems());
+        verify(itemService, times(1)).getAllByRequestIds(any());
+        verify(itemService, never()).getAllByRequestId(anyLong());
+    }
+
+    @Test
+    void getAllItemRequestsCreatedAnotherUsersAfterShouldSeekByCursor() {
+        PageCursor cursor = PageCursor.of(itemRequest.getCreatedTime(), itemRequest.getId());
+        when(requestRepository.findAllByRequestorIdIsNotAfter(eq(userId), eq(cursor.getTime()), eq(cursor.getId()),
+                any())).thenReturn(List.of(itemRequest));
+
+        assertEquals(List.of(itemRequest), itemRequestService
+                .getAllItemRequestsCreatedAnotherUsersAfter(userId, cursor, 2));
+
+        verify(requestRepository, never()).findAllByRequestor_IdIsNot(anyLong(), any());
+    }
+
+    @Test
+    void getAllItemRequestsCreatedAnotherUsersAfterShouldThrowConflictExceptionWhenCursorHasNoTime() {
+        assertThrows(ConflictException.class, () -> itemRequestService
+                .getAllItemRequestsCreatedAnotherUsersAfter(userId, PageCursor.of(1L), 2));
+
+        verifyNoMoreInteractions(requestRepository);
+    }
 }
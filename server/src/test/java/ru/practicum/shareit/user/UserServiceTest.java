@@ -79,13 +79,29 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findById(userId);
     }
 
+    @Test
+    void checkExistsShouldNotLoadUser() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        userService.checkExists(userId);
+
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void checkExistsShouldThrowUserNotFoundExceptionWhenUserMissing() {
+        when(userRepository.existsById(anyLong())).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> userService.checkExists(userId));
+    }
+
     @Test
     void addShouldReturnUser() {
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
 
         User result = userService.add(userDto);
 
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(1)).saveAndFlush(user);
         assertNotNull(result);
         assertEquals(user, result);
     }